@@ -0,0 +1,53 @@
+package tictactoe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// one AI decision per operation, made through the same entry point as the console game. The forked JVM runs with the
+// move cache off, so every decision is computed rather than looked up; each iteration starts a fresh engine on empty
+// search tables, which then fill over the iteration as they do when a game comes back to a position. A search on
+// cold tables is SearchBenchmark's coldTable. On 3x3 "hard" still answers from the Tablebase as it does in play,
+// "hard:live" measures the search itself
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-D" + MoveCache.CAPACITY_PROPERTY + "=0")
+public class AiBenchmark {
+
+    @Param({"empty-3x3", "midgame-3x3", "midgame-4x4", "midgame-7x7-k4"})
+    private String position;
+
+    @Param({"easy", "medium", "hard", "hard:live"})
+    private String difficulty;
+
+    private Game game;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        MinimaxSearch.clearTables();
+
+        game = PositionCorpus.get(position).newGame(difficulty);
+        // the AI would announce every move on the console, which would dominate the measurement
+        game.setQuiet(true);
+    }
+
+    @Benchmark
+    public int chooseCoordinates() {
+        game.getCurrentPlayer().chooseCoordinates(game);
+        return game.unmakeMove();
+    }
+}
@@ -0,0 +1,45 @@
+package tictactoe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// win detection and move generation as the console game calls them after every move
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"empty-3x3", "midgame-3x3", "endgame-3x3", "midgame-4x4", "midgame-7x7-k4", "midgame-15x15-k5"})
+    private String position;
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = PositionCorpus.get(position).newGame("easy");
+    }
+
+    @Benchmark
+    public String checkGameResult() {
+        return game.checkGameResult();
+    }
+
+    @Benchmark
+    public int[][] getEmptyCells() {
+        return game.getEmptyCells();
+    }
+}
@@ -0,0 +1,90 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// the fixed positions in positions.txt, so results stay comparable between changes
+public final class PositionCorpus {
+    private static final String RESOURCE = "/positions.txt";
+    private static final Map<String, Position> POSITIONS = load();
+
+    private PositionCorpus() {
+    }
+
+    public static Position get(String name) {
+        Position position = POSITIONS.get(name);
+        if (position == null) {
+            throw new IllegalArgumentException("No position " + name + " in " + RESOURCE);
+        }
+        return position;
+    }
+
+    private static Map<String, Position> load() {
+        Map<String, Position> positions = new LinkedHashMap<>();
+
+        try (InputStream input = PositionCorpus.class.getResourceAsStream(RESOURCE);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.trim().split(" ");
+                positions.put(fields[0], new Position(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), fields[3]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return positions;
+    }
+
+    public static final class Position {
+        private final int size;
+        private final int winLength;
+        private final String cells;
+
+        private Position(int size, int winLength, String cells) {
+            if (cells.length() != size * size) {
+                throw new IllegalArgumentException("Expected " + size * size + " cells but got " + cells);
+            }
+            this.size = size;
+            this.winLength = winLength;
+            this.cells = cells;
+        }
+
+        public char getSideToMove() {
+            long xCount = cells.chars().filter(c -> c == 'X').count();
+            long oCount = cells.chars().filter(c -> c == 'O').count();
+            return xCount == oCount ? 'X' : 'O';
+        }
+
+        public Board newBoard() {
+            Board board = new Board(size, winLength);
+            for (int cell = 0; cell < cells.length(); cell++) {
+                if (cells.charAt(cell) != '.') {
+                    board.place(cell, cells.charAt(cell));
+                }
+            }
+            return board;
+        }
+
+        // a game in this position with an AI of the given type to move
+        public Game newGame(String type) {
+            Game game = new Game(size, winLength);
+            for (int cell = 0; cell < cells.length(); cell++) {
+                if (cells.charAt(cell) != '.') {
+                    game.makeMove(cell, cells.charAt(cell));
+                }
+            }
+            game.setCurrentPlayer(new AI(getSideToMove(), type));
+            return game;
+        }
+    }
+}
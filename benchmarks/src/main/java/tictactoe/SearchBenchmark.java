@@ -0,0 +1,57 @@
+package tictactoe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// a HARD search at its default depth; with a cold table every operation starts from scratch,
+// with a warm one it measures the lookups a repeated position costs
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"empty-3x3", "midgame-3x3", "midgame-4x4", "midgame-5x5-k4", "midgame-7x7-k4", "midgame-15x15-k5"})
+    private String position;
+
+    @Param({"true", "false"})
+    private boolean coldTable;
+
+    private Board board;
+    private char symbol;
+    private int depth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PositionCorpus.Position corpusPosition = PositionCorpus.get(position);
+        board = corpusPosition.newBoard();
+        symbol = corpusPosition.getSideToMove();
+        depth = MinimaxSearch.getDefaultDepth(board);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        if (coldTable) {
+            MinimaxSearch.clearTables();
+        }
+    }
+
+    @Benchmark
+    public int getBestMoveByMinimax() {
+        return new MinimaxSearch(board).getBestMoveByMinimax(board, symbol, depth);
+    }
+}
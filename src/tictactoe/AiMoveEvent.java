@@ -0,0 +1,44 @@
+package tictactoe;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// one AI decision in a Flight Recorder recording, e.g. "java -XX:StartFlightRecording=filename=moves.jfr ..."
+@Name("tictactoe.AIMove")
+@Label("AI Move")
+@Category("Tic-tac-toe")
+@Description("A move chosen by an AI player")
+@StackTrace(false)
+public class AiMoveEvent extends Event {
+    @Label("Difficulty")
+    String difficulty;
+
+    @Label("Symbol")
+    char symbol;
+
+    @Label("Cell")
+    int cell;
+
+    @Label("Decision Time")
+    @Timespan
+    long decisionNanos;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Cached")
+    boolean cached;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,201 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// runs many headless AI-vs-AI games on all cores and reports the results, e.g.
+// "java tictactoe.BatchRunner hard easy 100000 --threads=8 --seed=1 --size=3 --win=3 --log=games.log"
+public class BatchRunner {
+    private static final String THREADS_OPTION = "--threads=";
+    private static final String SEED_OPTION = "--seed=";
+    private static final String SIZE_OPTION = "--size=";
+    private static final String WIN_OPTION = "--win=";
+    private static final String LOG_OPTION = "--log=";
+
+    private final PlayerType xType;
+    private final PlayerType oType;
+    private final int size;
+    private final int winLength;
+    private final int threads;
+    private final long seed;
+    private final GameLog log;
+
+    public BatchRunner(PlayerType xType, PlayerType oType, int size, int winLength, int threads, long seed) {
+        this(xType, oType, size, winLength, threads, seed, GameLog.getShared());
+    }
+
+    // every game played is appended to the log unless it is null
+    public BatchRunner(PlayerType xType, PlayerType oType, int size, int winLength, int threads, long seed, GameLog log) {
+        this.xType = xType;
+        this.oType = oType;
+        this.size = size;
+        this.winLength = winLength;
+        this.threads = threads;
+        this.seed = seed;
+        this.log = log;
+    }
+
+    // game i is always played with seed + i, so the totals don't depend on the number of threads
+    public Statistics run(long games) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        try {
+            List<Future<Statistics>> results = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                int firstGame = worker;
+                results.add(executor.submit(() -> playEvery(firstGame, threads, games)));
+            }
+
+            Statistics total = new Statistics();
+            for (Future<Statistics> result : results) {
+                total.add(result.get());
+            }
+            total.elapsedNanos = System.nanoTime() - start;
+            return total;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Statistics playEvery(long firstGame, int step, long games) {
+        PlayerStrategy x = PlayerStrategy.forType(xType);
+        PlayerStrategy o = PlayerStrategy.forType(oType);
+        Board board = new Board(size, winLength);
+        Statistics statistics = new Statistics();
+
+        for (long game = firstGame; game < games; game += step) {
+            long startMillis = System.currentTimeMillis();
+            GameResult result = GameRunner.play(x, o, seed + game, board);
+            statistics.record(result);
+
+            if (log != null) {
+                log.append(new GameRecord(xType.toString(), oType.toString(), size, winLength,
+                        result.getCells(), result.getWinner(), startMillis, result.getDurationNanos()));
+            }
+        }
+        return statistics;
+    }
+
+    public static class Statistics {
+        private long xWins;
+        private long oWins;
+        private long draws;
+        private long moves;
+        private long elapsedNanos;
+
+        private void record(GameResult result) {
+            switch (result.getWinner()) {
+                case 'X' -> xWins++;
+                case 'O' -> oWins++;
+                default -> draws++;
+            }
+            moves += result.getMoves();
+        }
+
+        private void add(Statistics other) {
+            xWins += other.xWins;
+            oWins += other.oWins;
+            draws += other.draws;
+            moves += other.moves;
+        }
+
+        public long getGames() {
+            return xWins + oWins + draws;
+        }
+
+        public long getXWins() {
+            return xWins;
+        }
+
+        public long getOWins() {
+            return oWins;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+        }
+
+        private String percentOf(long count) {
+            return String.format("%d (%.1f%%)", count, getGames() == 0 ? 0 : 100.0 * count / getGames());
+        }
+
+        @Override
+        public String toString() {
+            return "Games: " + getGames() + System.lineSeparator() +
+                    "X wins: " + percentOf(xWins) + System.lineSeparator() +
+                    "O wins: " + percentOf(oWins) + System.lineSeparator() +
+                    "Draws: " + percentOf(draws) + System.lineSeparator() +
+                    String.format("Games/sec: %.0f", getGamesPerSecond());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: BatchRunner <xType> <oType> <games> " +
+                    "[" + THREADS_OPTION + "n] [" + SEED_OPTION + "n] [" + SIZE_OPTION + "n] [" + WIN_OPTION + "n] [" + LOG_OPTION + "file]");
+            return;
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        int size = Board.DEFAULT_SIZE;
+        Integer winLength = null;
+        String logFile = null;
+
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(args[i].substring(THREADS_OPTION.length()));
+            } else if (args[i].startsWith(SEED_OPTION)) {
+                seed = Long.parseLong(args[i].substring(SEED_OPTION.length()));
+            } else if (args[i].startsWith(SIZE_OPTION)) {
+                size = Integer.parseInt(args[i].substring(SIZE_OPTION.length()));
+            } else if (args[i].startsWith(WIN_OPTION)) {
+                winLength = Integer.parseInt(args[i].substring(WIN_OPTION.length()));
+            } else if (args[i].startsWith(LOG_OPTION)) {
+                logFile = args[i].substring(LOG_OPTION.length());
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        GameLog log = logFile == null ? GameLog.getShared() : new GameLog(Paths.get(logFile));
+        BatchRunner runner = new BatchRunner(PlayerType.parse(args[0]), PlayerType.parse(args[1]),
+                size, winLength == null ? Board.getDefaultWinLength(size) : winLength, threads, seed, log);
+
+        System.out.println(runner.run(Long.parseLong(args[2])));
+        System.out.println(MoveCache.getShared());
+        if (MoveMetrics.isEnabled()) {
+            System.out.print(MoveMetrics.getInstance());
+        }
+
+        if (log != null) {
+            System.out.println("Logged " + log.getRecordCount() + " games");
+            if (logFile != null) {
+                log.close();
+            } else {
+                log.flush();
+            }
+        }
+    }
+}
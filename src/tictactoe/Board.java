@@ -0,0 +1,479 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Board {
+    public static final int DEFAULT_SIZE = 3;
+    public static final int MIN_SIZE = 3;
+    public static final int MAX_SIZE = 15;
+    public static final int MIN_WIN_LENGTH = 3;
+    public static final int MAX_DEFAULT_WIN_LENGTH = 5;
+    public static final char EMPTY = ' ';
+    public static final int SYMMETRY_COUNT = 8;
+    private static final long ZOBRIST_SEED = 0x2545F4914F6CDD1DL;
+
+    // row and column steps of the four line directions: horizontal, vertical, diagonal, anti-diagonal
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    private static final Map<Integer, Geometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int winLength;
+    private final int cellCount;
+    private final Geometry geometry;
+    private final long[] xBits;
+    private final long[] oBits;
+    private final long lastWordMask;
+
+    // per window: the stones of each player in it; per count from 1: the windows holding that many stones
+    // of one player and none of the other, so index winLength counts completed lines (index 0 is unused)
+    private final byte[] xWindowStones;
+    private final byte[] oWindowStones;
+    private final int[] xOpenWindows;
+    private final int[] oOpenWindows;
+
+    private int stones = 0;
+    private char winner = EMPTY;
+    private long hash = 0;
+
+    public Board() {
+        this(DEFAULT_SIZE, DEFAULT_SIZE);
+    }
+
+    public Board(int size, int winLength) {
+        if (size < MIN_SIZE || size > MAX_SIZE || winLength < MIN_WIN_LENGTH || winLength > size) {
+            throw new IllegalArgumentException("Unsupported board " + size + "x" + size + " with " + winLength + " in a row");
+        }
+        this.size = size;
+        this.winLength = winLength;
+        this.cellCount = size * size;
+        this.geometry = GEOMETRIES.computeIfAbsent(size * 100 + winLength, key -> new Geometry(size, winLength));
+        this.xBits = new long[(cellCount + 63) >>> 6];
+        this.oBits = new long[xBits.length];
+        this.lastWordMask = (cellCount & 63) == 0 ? -1L : (1L << (cellCount & 63)) - 1;
+        this.xWindowStones = new byte[geometry.windowCells.length / winLength];
+        this.oWindowStones = new byte[xWindowStones.length];
+        this.xOpenWindows = new int[winLength + 1];
+        this.oOpenWindows = new int[winLength + 1];
+    }
+
+    public Board copy() {
+        Board copy = new Board(size, winLength);
+        System.arraycopy(xBits, 0, copy.xBits, 0, xBits.length);
+        System.arraycopy(oBits, 0, copy.oBits, 0, oBits.length);
+        System.arraycopy(xWindowStones, 0, copy.xWindowStones, 0, xWindowStones.length);
+        System.arraycopy(oWindowStones, 0, copy.oWindowStones, 0, oWindowStones.length);
+        System.arraycopy(xOpenWindows, 0, copy.xOpenWindows, 0, xOpenWindows.length);
+        System.arraycopy(oOpenWindows, 0, copy.oOpenWindows, 0, oOpenWindows.length);
+        copy.stones = stones;
+        copy.winner = winner;
+        copy.hash = hash;
+        return copy;
+    }
+
+    // empties the board, so one board can serve game after game
+    public void reset() {
+        Arrays.fill(xBits, 0);
+        Arrays.fill(oBits, 0);
+        Arrays.fill(xWindowStones, (byte) 0);
+        Arrays.fill(oWindowStones, (byte) 0);
+        Arrays.fill(xOpenWindows, 0);
+        Arrays.fill(oOpenWindows, 0);
+        stones = 0;
+        winner = EMPTY;
+        hash = 0;
+    }
+
+    // the X words followed by the O words, a snapshot identifying the position exactly
+    public long[] getStones() {
+        long[] words = new long[getStoneWordCount()];
+        copyStones(words);
+        return words;
+    }
+
+    public int getStoneWordCount() {
+        return xBits.length * 2;
+    }
+
+    // the same snapshot written into an array of getStoneWordCount() words, e.g. one kept for repeated lookups
+    public void copyStones(long[] words) {
+        System.arraycopy(xBits, 0, words, 0, xBits.length);
+        System.arraycopy(oBits, 0, words, xBits.length, oBits.length);
+    }
+
+    public static int getDefaultWinLength(int size) {
+        return Math.min(size, MAX_DEFAULT_WIN_LENGTH);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int toCell(int row, int col) {
+        return row * size + col;
+    }
+
+    public int rowOf(int cell) {
+        return cell / size;
+    }
+
+    public int colOf(int cell) {
+        return cell % size;
+    }
+
+    public int countStones() {
+        return stones;
+    }
+
+    public int countEmptyCells() {
+        return cellCount - stones;
+    }
+
+    public boolean isFull() {
+        return stones == cellCount;
+    }
+
+    public char getWinner() {
+        return winner;
+    }
+
+    public boolean isWin(char symbol) {
+        return winner == symbol;
+    }
+
+    // windows holding exactly the given number of the player's stones and none of the opponent's
+    public int countOpenWindows(char symbol, int stones) {
+        return (symbol == 'X' ? xOpenWindows : oOpenWindows)[stones];
+    }
+
+    // the player's stones in one window of getWindowCells()
+    public int countWindowStones(char symbol, int window) {
+        return (symbol == 'X' ? xWindowStones : oWindowStones)[window];
+    }
+
+    public int getWindowCount() {
+        return xWindowStones.length;
+    }
+
+    public boolean isGameOver() {
+        return winner != EMPTY || stones == cellCount;
+    }
+
+    public boolean isEmpty(int cell) {
+        return !isSet(xBits, cell) && !isSet(oBits, cell);
+    }
+
+    public char getSymbol(int cell) {
+        return isSet(xBits, cell) ? 'X' : isSet(oBits, cell) ? 'O' : EMPTY;
+    }
+
+    public int nextEmptyCell(int from) {
+        for (int word = from >>> 6; word < xBits.length; word++) {
+            long empty = ~(xBits[word] | oBits[word]);
+
+            if (word == from >>> 6) {
+                empty &= -1L << from;
+            }
+            if (word == xBits.length - 1) {
+                empty &= lastWordMask;
+            }
+            if (empty != 0) {
+                return word << 6 | Long.numberOfTrailingZeros(empty);
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasNeighbour(int cell) {
+        int row = rowOf(cell);
+        int col = colOf(cell);
+
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, size - 1); r++) {
+            for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, size - 1); c++) {
+                if (!isEmpty(toCell(r, c))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void place(int cell, char symbol) {
+        boolean isX = symbol == 'X';
+        (isX ? xBits : oBits)[cell >>> 6] |= 1L << cell;
+        stones++;
+        hash ^= geometry.zobristKeys[cell << 1 | (isX ? 0 : 1)];
+        addToWindows(cell, isX ? xWindowStones : oWindowStones, isX ? oWindowStones : xWindowStones,
+                isX ? xOpenWindows : oOpenWindows, isX ? oOpenWindows : xOpenWindows, 1);
+
+        if (winner == EMPTY && (isX ? xOpenWindows : oOpenWindows)[winLength] > 0) {
+            winner = symbol;
+        }
+    }
+
+    // undoes place(); the winner stays the player who completed a line first as long as moves are cleared in reverse order
+    public void clear(int cell) {
+        char symbol = getSymbol(cell);
+        if (symbol == EMPTY) {
+            return;
+        }
+        boolean isX = symbol == 'X';
+        (isX ? xBits : oBits)[cell >>> 6] &= ~(1L << cell);
+        stones--;
+        hash ^= geometry.zobristKeys[cell << 1 | (isX ? 0 : 1)];
+        addToWindows(cell, isX ? xWindowStones : oWindowStones, isX ? oWindowStones : xWindowStones,
+                isX ? xOpenWindows : oOpenWindows, isX ? oOpenWindows : xOpenWindows, -1);
+
+        if (winner == symbol && (isX ? xOpenWindows : oOpenWindows)[winLength] == 0) {
+            char other = isX ? 'O' : 'X';
+            winner = (isX ? oOpenWindows : xOpenWindows)[winLength] > 0 ? other : EMPTY;
+        }
+    }
+
+    // moves one stone (delta 1) into or (delta -1) out of every window through the cell
+    private void addToWindows(int cell, byte[] own, byte[] other, int[] ownOpen, int[] otherOpen, int delta) {
+        for (int window : geometry.cellWindows[cell]) {
+            int before = own[window];
+            int after = before + delta;
+            int otherStones = other[window];
+            own[window] = (byte) after;
+
+            if (otherStones == 0) {
+                ownOpen[before]--;
+                ownOpen[after]++;
+            } else if (before == 0) {
+                otherOpen[otherStones]--;
+            } else if (after == 0) {
+                otherOpen[otherStones]++;
+            }
+        }
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    public int[] getMoveOrder() {
+        return geometry.moveOrder;
+    }
+
+    public int[] getWindowCells() {
+        return geometry.windowCells;
+    }
+
+    public int getCanonicalSymmetry() {
+        if (geometry.transformTables == null) {
+            return 0;
+        }
+
+        int canonicalSymmetry = 0;
+        long canonicalKey = getKey(0);
+
+        for (int symmetry = 1; symmetry < SYMMETRY_COUNT; symmetry++) {
+            long key = getKey(symmetry);
+            if (key < canonicalKey) {
+                canonicalKey = key;
+                canonicalSymmetry = symmetry;
+            }
+        }
+        return canonicalSymmetry;
+    }
+
+    // Zobrist hash of the position, kept up to date by place() and clear()
+    public long getHash() {
+        return hash;
+    }
+
+    // exact for boards up to 32 cells, a hash above that; boards over 64 cells ignore the symmetry
+    public long getKey(int symmetry) {
+        if (geometry.transformTables == null) {
+            return hash;
+        }
+
+        long x = geometry.transform(symmetry, xBits[0]);
+        long o = geometry.transform(symmetry, oBits[0]);
+
+        return cellCount <= 32 ? x | o << cellCount : mix(x, o);
+    }
+
+    private static long mix(long x, long o) {
+        long hash = x * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(o * 0xC2B2AE3D27D4EB4FL, 31);
+        return hash ^ hash >>> 29;
+    }
+
+    public int transformCell(int symmetry, int cell) {
+        return geometry.symmetries[symmetry][cell];
+    }
+
+    public int inverseTransformCell(int symmetry, int transformedCell) {
+        return geometry.inverseSymmetries[symmetry][transformedCell];
+    }
+
+    public char getSymbol(int row, int col) {
+        return getSymbol(toCell(row, col));
+    }
+
+    public void setSymbol(int row, int col, char symbol) {
+        int cell = toCell(row, col);
+        clear(cell);
+        if (symbol != EMPTY) {
+            place(cell, symbol);
+        }
+    }
+
+    public char[][] toCharArray() {
+        char[][] field = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                field[row][col] = getSymbol(row, col);
+            }
+        }
+        return field;
+    }
+
+    private static class Geometry {
+        private final int[][] symmetries;
+        private final int[][] inverseSymmetries;
+        private final long[][][] transformTables;
+        private final int[] moveOrder;
+        private final int[] windowCells;
+        private final int[][] cellWindows;
+        private final long[] zobristKeys;
+
+        private Geometry(int size, int winLength) {
+            int cellCount = size * size;
+
+            symmetries = new int[SYMMETRY_COUNT][cellCount];
+            inverseSymmetries = new int[SYMMETRY_COUNT][cellCount];
+
+            for (int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++) {
+                for (int cell = 0; cell < cellCount; cell++) {
+                    int row = cell / size;
+                    int col = cell % size;
+
+                    if (symmetry >= 4) {
+                        col = size - 1 - col;
+                    }
+                    for (int rotation = 0; rotation < (symmetry & 3); rotation++) {
+                        int rotatedRow = col;
+                        col = size - 1 - row;
+                        row = rotatedRow;
+                    }
+                    symmetries[symmetry][cell] = row * size + col;
+                    inverseSymmetries[symmetry][row * size + col] = cell;
+                }
+            }
+
+            transformTables = cellCount <= 64 ? buildTransformTables(cellCount) : null;
+            moveOrder = buildMoveOrder(size);
+            windowCells = buildWindowCells(size, winLength);
+            cellWindows = buildCellWindows(cellCount, winLength, windowCells);
+            zobristKeys = new SplittableRandom(ZOBRIST_SEED).longs(cellCount * 2L).toArray();
+        }
+
+        // transformTables[s][chunk][bits] maps 8 cells at a time, so a symmetric key costs a few lookups
+        private long[][][] buildTransformTables(int cellCount) {
+            int chunks = (cellCount + 7) / 8;
+            long[][][] tables = new long[SYMMETRY_COUNT][chunks][256];
+
+            for (int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    for (int bits = 0; bits < 256; bits++) {
+                        long transformed = 0;
+                        for (int bit = 0; bit < 8; bit++) {
+                            int cell = chunk * 8 + bit;
+                            if ((bits & 1 << bit) != 0 && cell < cellCount) {
+                                transformed |= 1L << symmetries[symmetry][cell];
+                            }
+                        }
+                        tables[symmetry][chunk][bits] = transformed;
+                    }
+                }
+            }
+            return tables;
+        }
+
+        private long transform(int symmetry, long bits) {
+            long[][] tables = transformTables[symmetry];
+            long transformed = 0;
+
+            for (int chunk = 0; bits != 0; chunk++, bits >>>= 8) {
+                transformed |= tables[chunk][(int) bits & 0xFF];
+            }
+            return transformed;
+        }
+
+        // center first, then ring by ring outwards; within a ring the diagonal cells (corners) go first
+        private static int[] buildMoveOrder(int size) {
+            int cellCount = size * size;
+            Integer[] cells = new Integer[cellCount];
+            int[] ring = new int[cellCount];
+            int[] diagonality = new int[cellCount];
+
+            for (int cell = 0; cell < cellCount; cell++) {
+                int rowDistance = Math.abs(2 * (cell / size) - (size - 1));
+                int colDistance = Math.abs(2 * (cell % size) - (size - 1));
+
+                cells[cell] = cell;
+                ring[cell] = Math.max(rowDistance, colDistance);
+                diagonality[cell] = Math.min(rowDistance, colDistance);
+            }
+
+            Arrays.sort(cells, (a, b) -> ring[a] != ring[b] ? Integer.compare(ring[a], ring[b]) :
+                    diagonality[a] != diagonality[b] ? Integer.compare(diagonality[b], diagonality[a]) :
+                            Integer.compare(a, b));
+
+            return Arrays.stream(cells).mapToInt(Integer::intValue).toArray();
+        }
+
+        // every run of winLength cells that could become a winning line, flattened winLength cells at a time
+        // cellWindows[cell] lists the windows the cell is part of
+        private static int[][] buildCellWindows(int cellCount, int winLength, int[] windowCells) {
+            int[] counts = new int[cellCount];
+            for (int cell : windowCells) {
+                counts[cell]++;
+            }
+
+            int[][] cellWindows = new int[cellCount][];
+            for (int cell = 0; cell < cellCount; cell++) {
+                cellWindows[cell] = new int[counts[cell]];
+                counts[cell] = 0;
+            }
+            for (int i = 0; i < windowCells.length; i++) {
+                int cell = windowCells[i];
+                cellWindows[cell][counts[cell]++] = i / winLength;
+            }
+            return cellWindows;
+        }
+
+        private static int[] buildWindowCells(int size, int winLength) {
+            int[] windowCells = new int[size * size * DIRECTIONS.length * winLength];
+            int index = 0;
+
+            for (int cell = 0; cell < size * size; cell++) {
+                for (int[] direction : DIRECTIONS) {
+                    int endRow = cell / size + direction[0] * (winLength - 1);
+                    int endCol = cell % size + direction[1] * (winLength - 1);
+
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    for (int i = 0; i < winLength; i++) {
+                        windowCells[index++] = (cell / size + direction[0] * i) * size + cell % size + direction[1] * i;
+                    }
+                }
+            }
+            return Arrays.copyOf(windowCells, index);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+public class EasyStrategy implements PlayerStrategy {
+
+    public static class Provider implements StrategyProvider {
+        private static final EasyStrategy ENGINE = new EasyStrategy();
+
+        @Override
+        public String getName() {
+            return "easy";
+        }
+
+        @Override
+        public PlayerStrategy create(PlayerType playerType) {
+            return ENGINE;
+        }
+    }
+
+    @Override
+    public Game.Parameter getDifficulty() {
+        return Game.Parameter.EASY;
+    }
+
+    @Override
+    public int chooseMove(Board board, char symbol, RandomGenerator random) {
+        return chooseRandomCell(board, random);
+    }
+
+    // a uniformly random empty cell, or -1 when the board is full
+    public static int chooseRandomCell(Board board, RandomGenerator random) {
+        int emptyCells = board.countEmptyCells();
+        if (emptyCells == 0) {
+            return -1;
+        }
+
+        int cell = board.nextEmptyCell(0);
+        for (int skipped = random.nextInt(emptyCells); skipped > 0; skipped--) {
+            cell = board.nextEmptyCell(cell + 1);
+        }
+        return cell;
+    }
+}
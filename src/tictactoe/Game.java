@@ -1,40 +1,138 @@
 package tictactoe;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
 public class Game {
     public static final String BAD_PARAMETERS = "Bad parameters!";
     public static final String ENTER_COMMAND = "Enter command: ";
-    private char[][] field;
+    public static final String QUIET_PROPERTY = "tictactoe.quiet";
+    public static final String SEED_PROPERTY = "tictactoe.seed";
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private Board board;
+    private int[] moves;
+    private int moveCount;
     private boolean gameIsOver = false;
     private String startCommand;
     private String[] startParams = new String[2];
+    private int boardSize = Board.DEFAULT_SIZE;
+    private int winLength = Board.DEFAULT_SIZE;
     private String gameResultMessage;
+    private long gameNanos;
+    // every game draws its random moves from a generator of its own seed, so it can be played again exactly;
+    // after setSeed(s) the games use s, s + 1, ..., otherwise every game gets a fresh random seed
+    private boolean seeded = System.getProperty(SEED_PROPERTY) != null;
+    private long nextSeed = Long.getLong(SEED_PROPERTY, 0);
+    private long seed;
+    private SplittableRandom random;
     private Player currentPlayer;
+    private Player player1;
+    private Player player2;
     private char winnerSymbol = ' ';
+    private BufferedReader input;
+    private PrintStream output;
+    private final boolean console;
+    private boolean quiet = Boolean.getBoolean(QUIET_PROPERTY);
+    private byte[] frame;
+    // player types the start command accepts beyond parsing, e.g. GameServer's caps for its clients
+    private Predicate<PlayerType> playerTypeFilter = type -> true;
+    private final GameLog gameLog = GameLog.getShared();
+
+    // one reader for the whole console session, so lines piped in ahead of time are never dropped
+    private static BufferedReader consoleInput;
 
     public Game() {
-        this.field = initializeField();
+        this(getConsoleInput(), System.out, true);
     }
 
-    public Player getCurrentPlayer() {
-        return currentPlayer;
+    public Game(int boardSize, int winLength) {
+        this();
+        this.boardSize = boardSize;
+        this.winLength = winLength;
+        newBoard();
     }
 
-    private boolean isGameIsOver() {
-        return gameIsOver;
+    // a game talking to a client instead of the console, e.g. a GameServer session;
+    // the reader is shared by all games of the session so no buffered input is lost between them
+    public Game(BufferedReader input, PrintStream output) {
+        this(input, output, false);
     }
 
-    private static char[][] initializeField() {
-        char[][] field = new char[3][3];
+    public Game(InputStream input, PrintStream output) {
+        this(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), output);
+    }
 
-        for (int row = 0; row < field.length; row++) {
-            for (int col = 0; col < field[row].length; col++) {
-                field[row][col] = ' ';
-            }
+    private Game(BufferedReader input, PrintStream output, boolean console) {
+        newBoard();
+        this.seed = seeded ? nextSeed : ThreadLocalRandom.current().nextLong();
+        this.random = new SplittableRandom(seed);
+        this.input = input;
+        this.output = output;
+        this.console = console;
+    }
+
+    private static synchronized BufferedReader getConsoleInput() {
+        if (consoleInput == null) {
+            consoleInput = new BufferedReader(new InputStreamReader(System.in));
         }
-        return field;
+        return consoleInput;
+    }
+
+    // a quiet game prints no boards and no AI announcements, only prompts, errors and the result
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    public void setPlayerTypeFilter(Predicate<PlayerType> playerTypeFilter) {
+        this.playerTypeFilter = playerTypeFilter;
+    }
+
+    public void setSeed(long seed) {
+        this.seeded = true;
+        this.nextSeed = seed;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    // called when a game starts
+    private void newRandom() {
+        seed = seeded ? nextSeed++ : ThreadLocalRandom.current().nextLong();
+        random = new SplittableRandom(seed);
+    }
+
+    // the seed of the game being played, or of the next one before it starts
+    public long getSeed() {
+        return seed;
+    }
+
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    void setCurrentPlayer(Player currentPlayer) {
+        this.currentPlayer = currentPlayer;
+    }
+
+    private boolean isGameIsOver() {
+        return gameIsOver;
     }
 
     public void runCommand() {
@@ -55,12 +153,16 @@ public class Game {
 
     private void startGame() {
         String[] playerTypes = startParams.clone();
+        reset();
+        newRandom();
 
-        Player player1 = createPlayer('X', playerTypes[0]);
-        Player player2 = createPlayer('O', playerTypes[1]);
+        player1 = reusePlayer(player1, 'X', playerTypes[0]);
+        player2 = reusePlayer(player2, 'O', playerTypes[1]);
 
         if (player1 == null || player2 == null) return;
 
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
         displayField();
 
         while (!isGameIsOver()) {
@@ -76,45 +178,170 @@ public class Game {
                 checkIfGameIsOver();
             }
         }
+        gameNanos = System.nanoTime() - start;
         printGameResult();
+
+        if (gameLog != null) {
+            gameLog.append(new GameRecord(playerTypes[0], playerTypes[1], boardSize, winLength,
+                    Arrays.copyOf(moves, moveCount), board.getWinner(), startMillis, gameNanos));
+        }
+    }
+
+    // clears everything a finished game leaves behind except the players and the board size, so one Game can play
+    // game after game; the board, the move stack and the frame buffer are kept when the size stays the same
+    public void reset() {
+        newBoard();
+        gameIsOver = false;
+        gameResultMessage = null;
+        currentPlayer = null;
+        winnerSymbol = ' ';
+        gameNanos = 0;
+    }
+
+    public void reset(int boardSize, int winLength) {
+        this.boardSize = boardSize;
+        this.winLength = winLength;
+        reset();
+    }
+
+    // hands the game to another client, e.g. when GamePool gives it out again
+    void attach(BufferedReader input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+        this.quiet = Boolean.getBoolean(QUIET_PROPERTY);
+        this.playerTypeFilter = type -> true;
+        this.startCommand = null;
+    }
+
+    private void newBoard() {
+        if (board != null && board.getSize() == boardSize && board.getWinLength() == winLength) {
+            board.reset();
+        } else {
+            board = new Board(boardSize, winLength);
+            moves = new int[board.getCellCount()];
+        }
+        moveCount = 0;
+    }
+
+    // places the symbol and pushes the cell on the move stack, so unmakeMove() can take it back
+    public void makeMove(int cell, char symbol) {
+        if (!board.isEmpty(cell)) {
+            throw new IllegalArgumentException("Cell " + cell + " is not empty");
+        }
+        board.place(cell, symbol);
+        moves[moveCount++] = cell;
+    }
+
+    // takes back the last move and returns its cell
+    public int unmakeMove() {
+        if (moveCount == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        int cell = moves[--moveCount];
+        board.clear(cell);
+        return cell;
+    }
+
+    // takes back the last move of both players, so the player to move gets the turn back
+    public boolean takeBackTurn() {
+        if (moveCount < 2) {
+            return false;
+        }
+        unmakeMove();
+        unmakeMove();
+        displayField();
+        return true;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + moveCount);
+        }
+        return moves[index];
     }
 
+    public long getHash() {
+        return board.getHash();
+    }
+
+    // only the console game owns the process; other games leave it to the caller to check isExitCommand()
     private void exitGame() {
-        System.exit(0);
+        if (console) {
+            System.exit(0);
+        }
+    }
+
+    // "X wins", "O wins" or "Draw" once a game has been played
+    public String getResultMessage() {
+        return gameResultMessage;
+    }
+
+    public long getGameNanos() {
+        return gameNanos;
+    }
+
+    public String[] getPlayerTypes() {
+        return startParams.clone();
+    }
+
+    public boolean isExitCommand() {
+        return startCommand != null && Command.valueOf(startCommand.toUpperCase()) == Command.EXIT;
     }
 
     private void printGameResult() {
-        System.out.println(gameResultMessage);
+        output.println(gameResultMessage);
     }
 
+    // the whole board goes out in a single write from a buffer kept for the board size
     private void displayField() {
-        for (int i = 0; i < 9; i++) {
-            System.out.print("-");
+        if (quiet) {
+            return;
         }
-        System.out.println();
 
-        for (int row = 0; row < field.length; row++) {
-            for (int col = 0; col < field[row].length; col++) {
-                if (col == 0) {
-                    System.out.print("| ");
-                }
-                System.out.print(field[row][col] + " ");
-                if (col == 2) {
-                    System.out.print("|");
-                }
-            }
-            System.out.println();
+        int size = board.getSize();
+        int width = size * 2 + 3;
+        int lineLength = width + LINE_SEPARATOR.length;
+        if (frame == null || frame.length != lineLength * (size + 2)) {
+            frame = new byte[lineLength * (size + 2)];
         }
 
-        for (int i = 0; i < 9; i++) {
-            System.out.print("-");
+        int pos = appendBorder(0, width);
+        for (int row = 0; row < size; row++) {
+            frame[pos++] = '|';
+            frame[pos++] = ' ';
+            for (int col = 0; col < size; col++) {
+                frame[pos++] = (byte) board.getSymbol(row, col);
+                frame[pos++] = ' ';
+            }
+            frame[pos++] = '|';
+            pos = appendLineSeparator(pos);
         }
-        System.out.println();
+        pos = appendBorder(pos, width);
+
+        output.write(frame, 0, pos);
+    }
+
+    private int appendBorder(int pos, int width) {
+        Arrays.fill(frame, pos, pos + width, (byte) '-');
+        return appendLineSeparator(pos + width);
     }
 
+    private int appendLineSeparator(int pos) {
+        System.arraycopy(LINE_SEPARATOR, 0, frame, pos, LINE_SEPARATOR.length);
+        return pos + LINE_SEPARATOR.length;
+    }
+
+
+    public Board getBoard() {
+        return board;
+    }
 
     public char[][] getField() {
-        return field;
+        return board.toCharArray();
     }
 
     private void checkIfGameIsOver() {
@@ -127,76 +354,62 @@ public class Game {
         gameIsOver = gameResultMessage != null;
     }
 
-    private boolean checkIfPlayerWins(char symbol) {
-        if (
-                (field[0][0] == symbol && field[0][1] == symbol && field[0][2] == symbol) ||
-                        (field[1][0] == symbol && field[1][1] == symbol && field[1][2] == symbol) ||
-                        (field[2][0] == symbol && field[2][1] == symbol && field[2][2] == symbol) ||
-                        (field[0][0] == symbol && field[1][0] == symbol && field[2][0] == symbol) ||
-                        (field[0][1] == symbol && field[1][1] == symbol && field[2][1] == symbol) ||
-                        (field[0][2] == symbol && field[1][2] == symbol && field[2][2] == symbol) ||
-                        (field[0][0] == symbol && field[1][1] == symbol && field[2][2] == symbol) ||
-                        (field[0][2] == symbol && field[1][1] == symbol && field[2][0] == symbol)
-        ) {
-            return true;
-        } else {
-            return false;
-        }
-    }
-
     public String checkGameResult() {
         char symbol = currentPlayer.getSymbol();
-        char enemySymbol = currentPlayer.getSymbol() == 'X' ? 'O' : 'X';
+        char enemySymbol = currentPlayer.getEnemySymbol();
 
-        if (checkIfPlayerWins(symbol)) {
+        if (board.isWin(symbol)) {
             return String.valueOf(symbol);
-        } else if (checkIfPlayerWins(enemySymbol)) {
+        } else if (board.isWin(enemySymbol)) {
             return String.valueOf(enemySymbol);
-        } else if (this.countEmptyCells() == 0) {
+        } else if (board.countEmptyCells() == 0) {
             return "Draw";
         }
         return null;
     }
 
-    private int countEmptyCells() {
-        int emptyCellsCounter = 0;
-        for (int row = 0; row < field.length; row++) {
-            for (int col = 0; col < field[row].length; col++) {
-                if (field[row][col] == ' ') emptyCellsCounter++;
-            }
-        }
-        return emptyCellsCounter;
-    }
-
     public int[][] getEmptyCells() {
-        int emptyCellsCounter = countEmptyCells();
-
-        int[][] emptyCells = new int[emptyCellsCounter][];
+        int[][] emptyCells = new int[board.countEmptyCells()][];
 
         int i = 0;
-        for (int row = 0; row < field.length; row++) {
-            for (int col = 0; col < field[row].length; col++) {
-                if (field[row][col] == ' ' && i < emptyCells.length) {
-                    emptyCells[i] = new int[]{row, col};
-                    i++;
-                }
-            }
+        for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+            emptyCells[i++] = new int[]{board.rowOf(cell), board.colOf(cell)};
         }
         return emptyCells;
     }
 
-    public static String getUserInput() {
-        Scanner scanner = new Scanner(System.in);
-        return scanner.nextLine();
+    // prompts are only flushed here, so a game on a socket sends its output in one piece per turn
+    // throws NoSuchElementException at the end of the input, as Scanner.nextLine() does
+    public String getUserInput() {
+        output.flush();
+        try {
+            String line = input.readLine();
+            if (line == null) {
+                throw new NoSuchElementException("No line found");
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public PrintStream getOutput() {
+        return output;
     }
 
 
+    // asks until a valid command is entered
     public void getCommand() {
-        System.out.print(ENTER_COMMAND);
-        validateFormat(getUserInput());
+        while (true) {
+            output.print(ENTER_COMMAND);
+            if (validateFormat(getUserInput())) {
+                return;
+            }
+            output.println(BAD_PARAMETERS);
+        }
     }
 
-    private void validateFormat(String userInput) {
+    private boolean validateFormat(String userInput) {
 
         try {
             String[] commandParams = userInput.split(" ");
@@ -210,13 +423,30 @@ public class Game {
                 throw new IllegalArgumentException(BAD_PARAMETERS);
             }
 
+            readBoardParameters(commandParams);
+
             startCommand = command;
             startParams = params;
+            return true;
 
         } catch (Exception e) {
-            System.out.println(BAD_PARAMETERS);
-            getCommand();
+            return false;
+        }
+    }
+
+    // optional board size and win length after the player types, e.g. "start hard user 5 4"
+    private void readBoardParameters(String[] commandParams) {
+        int size = commandParams.length > 3 ? Integer.parseInt(commandParams[3]) : Board.DEFAULT_SIZE;
+        int length = commandParams.length > 4 ? Integer.parseInt(commandParams[4]) : Board.getDefaultWinLength(size);
+
+        if (commandParams.length > 5 ||
+                size < Board.MIN_SIZE || size > Board.MAX_SIZE ||
+                length < Board.MIN_WIN_LENGTH || length > size) {
+            throw new IllegalArgumentException(BAD_PARAMETERS);
         }
+
+        boardSize = size;
+        winLength = length;
     }
 
     private static boolean isCommandValid(String command) {
@@ -229,7 +459,7 @@ public class Game {
         return true;
     }
 
-    private static boolean areParametersValid(String[] params, String command) {
+    private boolean areParametersValid(String[] params, String command) {
         Command action = Command.valueOf(command.toUpperCase());
         if (action == Command.EXIT) {
             return true; // exit command can go without any params, so they don't matter
@@ -237,7 +467,9 @@ public class Game {
 
         try {
             for (String param : params) {
-                Parameter.valueOf(param.toUpperCase());
+                if (!playerTypeFilter.test(PlayerType.parse(param))) {
+                    return false;
+                }
             }
             return true;
 
@@ -246,11 +478,16 @@ public class Game {
         }
     }
 
+    // players keep nothing of a game, so the last game's player serves again when its type is the same
+    private Player reusePlayer(Player player, char symbol, String type) {
+        return player != null && player.getType().equals(type) ? player : createPlayer(symbol, type);
+    }
+
     private Player createPlayer(char symbol, String type) {
 
         Parameter userType;
         try {
-            userType = Parameter.valueOf(type.toUpperCase());
+            userType = PlayerType.parse(type).getParameter();
         } catch (IllegalArgumentException e) {
             throw new RuntimeException(e);
         }
@@ -269,6 +506,9 @@ public class Game {
         USER,
         EASY,
         MEDIUM,
-        HARD;
+        HARD,
+        MCTS,
+        // an engine of a StrategyProvider found on the class path
+        CUSTOM;
     }
 }
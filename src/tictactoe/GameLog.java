@@ -0,0 +1,104 @@
+package tictactoe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// appends finished games to a binary file, collecting them in a buffer that is written out when full, on flush() and on close().
+// Setting the system property "tictactoe.gameLog" to a file makes every Game and BatchRunner log to it.
+public class GameLog implements Closeable {
+    public static final String FILE_PROPERTY = "tictactoe.gameLog";
+    static final int MAGIC = 0x54544731; // "TTG1"
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static volatile GameLog shared;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long records;
+
+    public GameLog(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+
+        if (channel.size() == 0) {
+            buffer.putInt(MAGIC);
+        } else {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(magic, 0);
+            if (magic.flip().remaining() != Integer.BYTES || magic.getInt() != MAGIC) {
+                channel.close();
+                throw new IllegalStateException("Not a game log: " + file);
+            }
+        }
+        channel.position(channel.size());
+    }
+
+    // the log named by the system property, opened on first use and flushed when the JVM exits; null when not set
+    public static GameLog getShared() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null) {
+            return null;
+        }
+
+        if (shared == null) {
+            synchronized (GameLog.class) {
+                if (shared == null) {
+                    try {
+                        GameLog log = new GameLog(Paths.get(file));
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                            try {
+                                log.close();
+                            } catch (IOException e) {
+                                throw new RuntimeException(e);
+                            }
+                        }));
+                        shared = log;
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    public synchronized void append(GameRecord record) {
+        try {
+            if (buffer.remaining() < record.getEncodedLength()) {
+                writeBuffer();
+            }
+            record.writeTo(buffer);
+            records++;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public synchronized long getRecordCount() {
+        return records;
+    }
+
+    public synchronized void flush() throws IOException {
+        writeBuffer();
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            writeBuffer();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package tictactoe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// reads a GameLog through a memory mapping, a window of the file at a time, so logs of any size can be scanned
+// without copying them onto the heap, e.g. "java tictactoe.GameLogReader games.log --verify"
+public class GameLogReader implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    public GameLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+
+        ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(magic, 0);
+        if (magic.flip().remaining() != Integer.BYTES || magic.getInt() != GameLog.MAGIC) {
+            channel.close();
+            throw new IllegalStateException("Not a game log: " + file);
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // walks the records in the order they were written; the getters read the current record straight from the mapping
+    public class Cursor {
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position = Integer.BYTES;
+        private int offset;
+        private int xTypeOffset;
+        private int oTypeOffset;
+        private int movesOffset;
+
+        // moves to the next record; false at the end of the log, including a record cut off by a crash
+        public boolean next() {
+            if (position + Short.BYTES > fileSize) {
+                return false;
+            }
+            map(position, Short.BYTES);
+            int length = window.getShort((int) (position - windowStart)) & 0xFFFF;
+            if (position + Short.BYTES + length > fileSize) {
+                return false;
+            }
+            map(position, Short.BYTES + length);
+
+            offset = (int) (position - windowStart) + Short.BYTES;
+            xTypeOffset = offset + GameRecord.HEADER_BYTES;
+            oTypeOffset = xTypeOffset + 1 + window.get(xTypeOffset);
+            movesOffset = oTypeOffset + 1 + window.get(oTypeOffset);
+            position += Short.BYTES + length;
+            return true;
+        }
+
+        private void map(long from, int bytes) {
+            if (window != null && from >= windowStart && from + bytes <= windowStart + window.limit()) {
+                return;
+            }
+            try {
+                windowStart = from;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW_SIZE, fileSize - from));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        public long getStartMillis() {
+            return window.getLong(offset);
+        }
+
+        public long getDurationNanos() {
+            return window.getLong(offset + Long.BYTES);
+        }
+
+        public int getSize() {
+            return window.get(offset + Long.BYTES * 2);
+        }
+
+        public int getWinLength() {
+            return window.get(offset + Long.BYTES * 2 + 1);
+        }
+
+        public char getWinner() {
+            return GameRecord.decodeWinner(window.get(offset + Long.BYTES * 2 + 2));
+        }
+
+        public String getXType() {
+            return readType(xTypeOffset);
+        }
+
+        public String getOType() {
+            return readType(oTypeOffset);
+        }
+
+        private String readType(int typeOffset) {
+            byte[] type = new byte[window.get(typeOffset)];
+            window.get(typeOffset + 1, type);
+            return new String(type, StandardCharsets.US_ASCII);
+        }
+
+        public int getMoveCount() {
+            return window.get(movesOffset) & 0xFF;
+        }
+
+        public int getMove(int index) {
+            return window.get(movesOffset + 1 + index) & 0xFF;
+        }
+
+        public GameRecord toRecord() {
+            int[] cells = new int[getMoveCount()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = getMove(i);
+            }
+            return new GameRecord(getXType(), getOType(), getSize(), getWinLength(), cells, getWinner(),
+                    getStartMillis(), getDurationNanos());
+        }
+    }
+
+    // plays the recorded moves on a board of their own, X first, without a Game and its console or random seed;
+    // throws if a move is illegal or comes after the end of the game
+    public static Board replay(GameRecord record) {
+        Board board = new Board(record.getSize(), record.getWinLength());
+
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            int cell = record.getMove(i);
+            if (board.isGameOver() || cell >= board.getCellCount() || !board.isEmpty(cell)) {
+                throw new IllegalStateException("Move " + (i + 1) + " to cell " + cell + " can't be played");
+            }
+            board.place(cell, i % 2 == 0 ? 'X' : 'O');
+        }
+        return board;
+    }
+
+    // true when the replayed game ends exactly with the recorded result
+    public static boolean verify(GameRecord record) {
+        try {
+            Board board = replay(record);
+            return board.isGameOver() && board.getWinner() == record.getWinner();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: GameLogReader <file> [--verify]");
+            return;
+        }
+        boolean verify = args.length > 1 && args[1].equals("--verify");
+
+        long games = 0;
+        long xWins = 0;
+        long oWins = 0;
+        long moves = 0;
+        long failures = 0;
+
+        try (GameLogReader reader = new GameLogReader(Paths.get(args[0]))) {
+            Cursor cursor = reader.cursor();
+            while (cursor.next()) {
+                games++;
+                moves += cursor.getMoveCount();
+                switch (cursor.getWinner()) {
+                    case 'X' -> xWins++;
+                    case 'O' -> oWins++;
+                }
+                if (verify && !verify(cursor.toRecord())) {
+                    failures++;
+                }
+            }
+        }
+
+        System.out.println("Games: " + games + System.lineSeparator() +
+                "X wins: " + xWins + System.lineSeparator() +
+                "O wins: " + oWins + System.lineSeparator() +
+                "Draws: " + (games - xWins - oWins) + System.lineSeparator() +
+                String.format("Moves per game: %.1f", games == 0 ? 0 : (double) moves / games));
+        if (verify) {
+            System.out.println("Games not matching their replay: " + failures);
+        }
+    }
+}
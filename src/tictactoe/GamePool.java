@@ -0,0 +1,43 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// recycles Games for servers and simulations that play many short games: a released game is reset and handed out
+// again with its board, move stack, frame buffer and players; at most 'capacity' idle games are kept
+public class GamePool {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final BlockingQueue<Game> idle;
+
+    public GamePool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GamePool(int capacity) {
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    // an idle game talking to the given client, or a new one when none is left
+    public Game acquire(BufferedReader input, PrintStream output) {
+        Game game = idle.poll();
+        if (game == null) {
+            return new Game(input, output);
+        }
+        game.attach(input, output);
+        return game;
+    }
+
+    // the game must not be used after this; a full pool leaves it to the garbage collector
+    public void release(Game game) {
+        game.reset();
+        game.attach(null, null);
+        idle.offer(game);
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
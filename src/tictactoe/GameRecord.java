@@ -0,0 +1,104 @@
+package tictactoe;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// a finished game as stored in a GameLog: the player types, the board, every move as a cell index, the result and timing
+public class GameRecord {
+    // record layout: short length of the rest, long start millis, long duration nanos, byte size, byte win length,
+    // byte winner (0 draw, 1 X, 2 O), byte + ASCII X type, byte + ASCII O type, byte move count, one byte per move
+    static final int HEADER_BYTES = Long.BYTES * 2 + 3;
+    private static final int MAX_TYPE_LENGTH = 127;
+
+    private final String xType;
+    private final String oType;
+    private final int size;
+    private final int winLength;
+    private final byte[] cells;
+    private final char winner;
+    private final long startMillis;
+    private final long durationNanos;
+
+    public GameRecord(String xType, String oType, int size, int winLength, int[] cells, char winner,
+                      long startMillis, long durationNanos) {
+        if (xType.length() > MAX_TYPE_LENGTH || oType.length() > MAX_TYPE_LENGTH) {
+            throw new IllegalArgumentException("Player type too long to record");
+        }
+        this.xType = xType;
+        this.oType = oType;
+        this.size = size;
+        this.winLength = winLength;
+        this.cells = new byte[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            this.cells[i] = (byte) cells[i];
+        }
+        this.winner = winner;
+        this.startMillis = startMillis;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getXType() {
+        return xType;
+    }
+
+    public String getOType() {
+        return oType;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public int getMoveCount() {
+        return cells.length;
+    }
+
+    public int getMove(int index) {
+        return cells[index] & 0xFF;
+    }
+
+    // 'X', 'O', or Board.EMPTY for a draw
+    public char getWinner() {
+        return winner;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    int getEncodedLength() {
+        return Short.BYTES + HEADER_BYTES + 1 + xType.length() + 1 + oType.length() + 1 + cells.length;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putShort((short) (getEncodedLength() - Short.BYTES))
+                .putLong(startMillis)
+                .putLong(durationNanos)
+                .put((byte) size)
+                .put((byte) winLength)
+                .put(encodeWinner(winner));
+        putType(buffer, xType);
+        putType(buffer, oType);
+        buffer.put((byte) cells.length).put(cells);
+    }
+
+    private static void putType(ByteBuffer buffer, String type) {
+        buffer.put((byte) type.length()).put(type.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static byte encodeWinner(char winner) {
+        return (byte) (winner == 'X' ? 1 : winner == 'O' ? 2 : 0);
+    }
+
+    static char decodeWinner(byte winner) {
+        return winner == 1 ? 'X' : winner == 2 ? 'O' : Board.EMPTY;
+    }
+}
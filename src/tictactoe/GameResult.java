@@ -0,0 +1,35 @@
+package tictactoe;
+
+public class GameResult {
+    private final char winner;
+    private final int[] cells;
+    private final long durationNanos;
+
+    public GameResult(char winner, int[] cells, long durationNanos) {
+        this.winner = winner;
+        this.cells = cells;
+        this.durationNanos = durationNanos;
+    }
+
+    // 'X', 'O', or Board.EMPTY for a draw
+    public char getWinner() {
+        return winner;
+    }
+
+    public boolean isDraw() {
+        return winner == Board.EMPTY;
+    }
+
+    public int getMoves() {
+        return cells.length;
+    }
+
+    // the cells played, X first
+    public int[] getCells() {
+        return cells.clone();
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+}
@@ -0,0 +1,45 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// plays whole games between two strategies without touching the console
+public class GameRunner {
+
+    private GameRunner() {
+    }
+
+    public static GameResult play(PlayerStrategy x, PlayerStrategy o, long seed) {
+        return play(x, o, seed, Board.DEFAULT_SIZE, Board.DEFAULT_SIZE);
+    }
+
+    public static GameResult play(PlayerStrategy x, PlayerStrategy o, long seed, int size, int winLength) {
+        return play(x, o, seed, new Board(size, winLength));
+    }
+
+    // plays on the given board after emptying it, so a caller running many games can keep one board
+    public static GameResult play(PlayerStrategy x, PlayerStrategy o, long seed, Board board) {
+        long start = System.nanoTime();
+        board.reset();
+        SplittableRandom random = new SplittableRandom(seed);
+        char symbol = 'X';
+        int[] cells = new int[board.getCellCount()];
+
+        while (!board.isGameOver()) {
+            PlayerStrategy strategy = symbol == 'X' ? x : o;
+            long decisionStart = MoveMetrics.begin();
+            long allocated = MoveMetrics.allocatedBytes();
+            int cell = strategy.chooseMove(board, symbol, random);
+            MoveMetrics.end(strategy.getDifficulty(), strategy, symbol, cell, decisionStart, allocated);
+
+            if (cell < 0 || cell >= board.getCellCount() || !board.isEmpty(cell)) {
+                throw new IllegalStateException("Strategy for " + symbol + " chose unavailable cell " + cell);
+            }
+
+            board.place(cell, symbol);
+            cells[board.countStones() - 1] = cell;
+            symbol = symbol == 'X' ? 'O' : 'X';
+        }
+        return new GameResult(board.getWinner(), Arrays.copyOf(cells, board.countStones()), System.nanoTime() - start);
+    }
+}
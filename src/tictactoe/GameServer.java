@@ -0,0 +1,133 @@
+package tictactoe;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// hosts games over a line-based TCP protocol: a client sends the same "start <type> <type> [size] [win]",
+// "row col" and "exit" lines as on the console and reads the same output, e.g. "java tictactoe.GameServer 4000".
+// Sessions only run on virtual threads when the server runs on Java 21 or later; the build targets Java 17, where
+// every connection holds a platform thread of its own. That limits a server to a few thousand open sessions, and
+// as the threads share the cores, many concurrent hard searches stretch each other's move times.
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 4000;
+    // caps on what a client can make the server compute; larger requests get "Bad parameters!" instead of a game
+    public static final int MAX_SESSION_THREADS = 4;
+    public static final long MAX_SESSION_TIME_BUDGET_MILLIS = 10_000;
+    public static final long MAX_SESSION_PLAYOUTS = 1_000_000;
+    private static final int BACKLOG = 1024;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final GamePool pool = new GamePool();
+
+    public GameServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG);
+        this.sessions = newSessionExecutor();
+    }
+
+    // one virtual thread per session where the runtime has them (Java 21+), looked up reflectively as the API
+    // doesn't exist in Java 17; a platform thread per session otherwise
+    public static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // the built-in player types within the caps; engines of StrategyProviders are not offered to clients
+    public static boolean isAllowed(PlayerType type) {
+        return type.getParameter() != Game.Parameter.CUSTOM &&
+                type.getThreads() <= MAX_SESSION_THREADS &&
+                type.getTimeBudgetMillis() <= MAX_SESSION_TIME_BUDGET_MILLIS &&
+                type.getIterations() <= MAX_SESSION_PLAYOUTS;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            sessions.execute(() -> runSession(socket));
+        }
+    }
+
+    // all games of a session are played on one Game from the pool, reading from the same connection
+    private void runSession(Socket socket) {
+        activeSessions.incrementAndGet();
+
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintStream output = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false, StandardCharsets.UTF_8);
+
+            Game game = pool.acquire(input, output);
+            game.setPlayerTypeFilter(GameServer::isAllowed);
+            try {
+                while (true) {
+                    game.getCommand();
+                    if (game.isExitCommand()) {
+                        break;
+                    }
+                    game.runCommand();
+                }
+                output.flush();
+            } finally {
+                pool.release(game);
+            }
+
+        } catch (NoSuchElementException | IOException | UncheckedIOException e) {
+            // the client has gone away
+        } catch (RuntimeException e) {
+            // a bug, not the client: report it and keep serving the other sessions
+            System.err.println("Session from " + socket.getRemoteSocketAddress() + " failed");
+            e.printStackTrace();
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    // stops accepting connections; sessions already running end when their clients disconnect or exit
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        try (GameServer server = new GameServer(port)) {
+            System.out.println("Listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+}
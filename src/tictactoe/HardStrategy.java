@@ -0,0 +1,94 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+// immutable apart from the statistics of the last move, which are kept per thread
+public class HardStrategy implements PlayerStrategy {
+    private final PlayerType playerType;
+    private final ThreadLocal<LastMove> lastMove = ThreadLocal.withInitial(LastMove::new);
+
+    public HardStrategy(PlayerType playerType) {
+        this.playerType = playerType;
+    }
+
+    public static class Provider implements StrategyProvider {
+        @Override
+        public String getName() {
+            return "hard";
+        }
+
+        @Override
+        public PlayerStrategy create(PlayerType playerType) {
+            return new HardStrategy(playerType);
+        }
+    }
+
+    @Override
+    public Game.Parameter getDifficulty() {
+        return Game.Parameter.HARD;
+    }
+
+    @Override
+    public long getLastNodeCount() {
+        return lastMove.get().nodeCount;
+    }
+
+    @Override
+    public int getLastDepth() {
+        return lastMove.get().depth;
+    }
+
+    // true when the move came from the tablebase or the move cache
+    @Override
+    public boolean isLastMoveCached() {
+        return lastMove.get().cached;
+    }
+
+    @Override
+    public int chooseMove(Board board, char symbol, RandomGenerator random) {
+        if (!playerType.isLiveSearch() && Tablebase.supports(board)) {
+            int cell = Tablebase.getInstance().getBestMove(board);
+
+            if (cell >= 0) {
+                lastMove.get().set(0, board.countEmptyCells(), true);
+                return cell;
+            }
+        }
+
+        RetrogradeTable table = playerType.isLiveSearch() ? null : RetrogradeTable.find(board);
+        if (table != null) {
+            int cell = table.getBestMove(board);
+
+            if (cell >= 0) {
+                lastMove.get().set(0, board.countEmptyCells(), true);
+                return cell;
+            }
+        }
+
+        // a fixed-depth search always picks the same move, a timed one depends on how far it got
+        MoveCache cache = MoveCache.getShared();
+        boolean cacheable = !playerType.hasTimeBudget();
+
+        if (cacheable) {
+            int cell = cache.get(board, symbol, Game.Parameter.HARD);
+            if (cell != MoveCache.NOT_CACHED) {
+                lastMove.get().set(0, MinimaxSearch.getDefaultDepth(board), true);
+                return cell;
+            }
+        }
+
+        MinimaxSearch search = playerType.getThreads() > 1 ?
+                new MinimaxSearch(board, MinimaxSearch.getPool(playerType.getThreads())) :
+                new MinimaxSearch(board);
+
+        int cell = playerType.hasTimeBudget() ?
+                search.getBestMoveWithinTime(board, symbol, playerType.getTimeBudgetMillis()) :
+                search.getBestMoveByMinimax(board, symbol, MinimaxSearch.getDefaultDepth(board));
+        lastMove.get().set(search.getNodeCount(), search.getCompletedDepth(), false);
+
+        if (cacheable) {
+            cache.put(board, symbol, Game.Parameter.HARD, cell);
+        }
+        return cell;
+    }
+}
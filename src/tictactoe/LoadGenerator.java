@@ -0,0 +1,260 @@
+package tictactoe;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// opens many concurrent sessions against a GameServer, plays "user" against an AI in each of them
+// and reports the throughput and latency of the moves, e.g.
+// "java tictactoe.LoadGenerator 1000 10 --host=localhost --port=4000 --opponent=hard --size=3 --win=3"
+public class LoadGenerator {
+    private static final String HOST_OPTION = "--host=";
+    private static final String PORT_OPTION = "--port=";
+    private static final String OPPONENT_OPTION = "--opponent=";
+    private static final String SIZE_OPTION = "--size=";
+    private static final String WIN_OPTION = "--win=";
+
+    private final String host;
+    private final int port;
+    private final String opponent;
+    private final int size;
+    private final int winLength;
+
+    public LoadGenerator(String host, int port, String opponent, int size, int winLength) {
+        this.host = host;
+        this.port = port;
+        this.opponent = opponent;
+        this.size = size;
+        this.winLength = winLength;
+    }
+
+    public Report run(int sessions, int games) {
+        ExecutorService executor = GameServer.newSessionExecutor();
+        long start = System.nanoTime();
+
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int session = 0; session < sessions; session++) {
+                long seed = session;
+                results.add(executor.submit(() -> playSession(games, seed)));
+            }
+
+            List<long[]> latencies = new ArrayList<>();
+            for (Future<long[]> result : results) {
+                latencies.add(result.get());
+            }
+            return new Report(sessions * (long) games, latencies, System.nanoTime() - start);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // returns the latency of every move of the session: from sending "row col" until the server asks again
+    private long[] playSession(int games, long seed) throws IOException {
+        Random random = new Random(seed);
+        long[] latencies = new long[games * (size * size / 2 + 1)];
+        int moves = 0;
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket, size);
+            connection.expect(Game.ENTER_COMMAND);
+
+            for (int game = 0; game < games; game++) {
+                String prompt = connection.send("start user " + opponent + " " + size + " " + winLength);
+
+                while (prompt.equals(Player.ENTER_COORDINATES)) {
+                    int cell = connection.chooseEmptyCell(random);
+                    long sent = System.nanoTime();
+                    prompt = connection.send((cell / size + 1) + " " + (cell % size + 1));
+                    latencies[moves++] = System.nanoTime() - sent;
+                }
+            }
+            connection.output.println("exit");
+            connection.output.flush();
+        }
+        return Arrays.copyOf(latencies, moves);
+    }
+
+    // the client side of a session: keeps the last board the server has drawn
+    private static class Connection {
+        private final BufferedReader input;
+        private final PrintStream output;
+        private final char[] field;
+        private final int size;
+        private final StringBuilder line = new StringBuilder();
+        private int fieldRow;
+
+        private Connection(Socket socket, int size) throws IOException {
+            this.input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.output = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false, StandardCharsets.UTF_8);
+            this.size = size;
+            this.field = new char[size * size];
+        }
+
+        private String send(String command) throws IOException {
+            output.println(command);
+            output.flush();
+            return readPrompt();
+        }
+
+        private void expect(String prompt) throws IOException {
+            String actual = readPrompt();
+            if (!actual.equals(prompt)) {
+                throw new IllegalStateException("Expected \"" + prompt + "\" but got \"" + actual + "\"");
+            }
+        }
+
+        // reads the server output up to the next prompt, which isn't followed by a line break
+        private String readPrompt() throws IOException {
+            while (true) {
+                int next = input.read();
+                if (next < 0) {
+                    throw new IOException("Connection closed by the server");
+                }
+
+                if (next == '\n') {
+                    readFieldLine();
+                    line.setLength(0);
+                } else if (next != '\r') {
+                    line.append((char) next);
+                    if (isPrompt(Player.ENTER_COORDINATES) || isPrompt(Game.ENTER_COMMAND)) {
+                        String prompt = line.toString();
+                        line.setLength(0);
+                        return prompt;
+                    }
+                }
+            }
+        }
+
+        private boolean isPrompt(String prompt) {
+            return line.length() == prompt.length() && line.toString().equals(prompt);
+        }
+
+        // rows are drawn as "| X O   |" between two lines of dashes
+        private void readFieldLine() {
+            if (line.length() > 0 && line.charAt(0) == '-') {
+                fieldRow = 0;
+            } else if (line.length() >= size * 2 + 2 && line.charAt(0) == '|' && fieldRow < size) {
+                for (int col = 0; col < size; col++) {
+                    field[fieldRow * size + col] = line.charAt(2 + col * 2);
+                }
+                fieldRow++;
+            }
+        }
+
+        private int chooseEmptyCell(Random random) {
+            int empty = 0;
+            for (char symbol : field) {
+                if (symbol == Board.EMPTY) {
+                    empty++;
+                }
+            }
+            if (empty == 0) {
+                throw new IllegalStateException("No empty cell left on " + new String(field));
+            }
+
+            int target = random.nextInt(empty);
+            for (int cell = 0; ; cell++) {
+                if (field[cell] == Board.EMPTY && target-- == 0) {
+                    return cell;
+                }
+            }
+        }
+    }
+
+    public static class Report {
+        private final long games;
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        private Report(long games, List<long[]> sessionLatencies, long elapsedNanos) {
+            this.games = games;
+            this.latencies = sessionLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getMoves() {
+            return latencies.length;
+        }
+
+        public double getMovesPerSecond() {
+            return elapsedNanos == 0 ? 0 : latencies.length * 1e9 / elapsedNanos;
+        }
+
+        // latency in nanoseconds below which the given fraction of the moves were answered
+        public long getPercentile(double fraction) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return "Games: " + games + System.lineSeparator() +
+                    "Moves: " + getMoves() + System.lineSeparator() +
+                    String.format("Moves/sec: %.0f", getMovesPerSecond()) + System.lineSeparator() +
+                    String.format("p50 latency: %.3f ms", getPercentile(0.50) / 1e6) + System.lineSeparator() +
+                    String.format("p99 latency: %.3f ms", getPercentile(0.99) / 1e6);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: LoadGenerator <sessions> <games per session> " +
+                    "[" + HOST_OPTION + "host] [" + PORT_OPTION + "n] [" + OPPONENT_OPTION + "type] " +
+                    "[" + SIZE_OPTION + "n] [" + WIN_OPTION + "n]");
+            return;
+        }
+
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        String opponent = Game.Parameter.HARD.name().toLowerCase();
+        int size = Board.DEFAULT_SIZE;
+        Integer winLength = null;
+
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith(HOST_OPTION)) {
+                host = args[i].substring(HOST_OPTION.length());
+            } else if (args[i].startsWith(PORT_OPTION)) {
+                port = Integer.parseInt(args[i].substring(PORT_OPTION.length()));
+            } else if (args[i].startsWith(OPPONENT_OPTION)) {
+                opponent = args[i].substring(OPPONENT_OPTION.length());
+            } else if (args[i].startsWith(SIZE_OPTION)) {
+                size = Integer.parseInt(args[i].substring(SIZE_OPTION.length()));
+            } else if (args[i].startsWith(WIN_OPTION)) {
+                winLength = Integer.parseInt(args[i].substring(WIN_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        LoadGenerator generator = new LoadGenerator(host, port, opponent,
+                size, winLength == null ? Board.getDefaultWinLength(size) : winLength);
+
+        System.out.println(generator.run(Integer.parseInt(args[0]), Integer.parseInt(args[1])));
+    }
+}
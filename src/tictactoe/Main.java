@@ -1,9 +1,75 @@
 package tictactoe;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.NoSuchElementException;
+
 public class Main {
+    public static final String QUIET = "--quiet";
+    public static final String BATCH = "--batch";
+    public static final String SEED = "--seed=";
+
+    // "--quiet" skips drawing the board, e.g. for scripted sessions with input piped from a file;
+    // "--batch" plays every start command of the input one after another and prints one line per game;
+    // "--seed=n" plays the games from seeds n, n + 1, ... so they can be repeated move for move
     public static void main(String[] args) {
+        boolean quiet = false;
+        boolean batch = false;
+        Long seed = null;
+
+        for (String arg : args) {
+            if (arg.equals(QUIET)) {
+                quiet = true;
+            } else if (arg.equals(BATCH)) {
+                batch = true;
+            } else if (arg.startsWith(SEED)) {
+                seed = Long.parseLong(arg.substring(SEED.length()));
+            }
+        }
+
+        if (batch) {
+            runBatch(new BufferedReader(new InputStreamReader(System.in)), System.out, seed);
+            return;
+        }
+
         Game game = new Game();
+        game.setQuiet(game.isQuiet() || quiet);
+        if (seed != null) {
+            game.setSeed(seed);
+        }
         game.getCommand();
         game.runCommand();
     }
+
+    // reads "start ..." commands and the moves of user players until "exit" or the end of the input; the games
+    // themselves print nothing, so invalid lines are skipped silently and only the summary lines are written
+    public static void runBatch(BufferedReader input, PrintStream summary, Long seed) {
+        Game game = new Game(input, new PrintStream(OutputStream.nullOutputStream()));
+        game.setQuiet(true);
+        if (seed != null) {
+            game.setSeed(seed);
+        }
+
+        long games = 0;
+        try {
+            while (true) {
+                game.getCommand();
+                if (game.isExitCommand()) {
+                    break;
+                }
+                game.runCommand();
+
+                String[] playerTypes = game.getPlayerTypes();
+                Board board = game.getBoard();
+                summary.printf("game=%d x=%s o=%s size=%d win=%d seed=%d result=%s moves=%d ms=%.3f%n",
+                        ++games, playerTypes[0], playerTypes[1], board.getSize(), board.getWinLength(), game.getSeed(),
+                        game.getResultMessage().replace(" wins", ""), game.getMoveCount(), game.getGameNanos() / 1e6);
+            }
+        } catch (NoSuchElementException e) {
+            // end of the input, possibly in the middle of a game that is then not reported
+        }
+        summary.flush();
+    }
 }
@@ -0,0 +1,121 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+// Monte Carlo tree search within a number of playouts or a time per move; with several threads every thread
+// grows a tree of its own from the same position and the move with the most visits over all trees is played.
+// The trees belong to the calling thread and the symbol played, so games on other threads never share them
+// and "mcts:reuse" against itself keeps one tree for each side.
+public class MctsStrategy implements PlayerStrategy {
+    public static final long DEFAULT_ITERATIONS = 20_000;
+
+    private final PlayerType playerType;
+    private final ThreadLocal<MonteCarloSearch[][]> searchesBySymbol;
+    private final ThreadLocal<LastMove> lastMove = ThreadLocal.withInitial(LastMove::new);
+
+    public MctsStrategy(PlayerType playerType) {
+        this.playerType = playerType;
+        this.searchesBySymbol = ThreadLocal.withInitial(() -> new MonteCarloSearch[2][]);
+    }
+
+    public static class Provider implements StrategyProvider {
+        @Override
+        public String getName() {
+            return "mcts";
+        }
+
+        @Override
+        public PlayerStrategy create(PlayerType playerType) {
+            return new MctsStrategy(playerType);
+        }
+    }
+
+    private MonteCarloSearch[] getSearches(char symbol) {
+        MonteCarloSearch[][] searches = searchesBySymbol.get();
+        int side = symbol == 'X' ? 0 : 1;
+
+        if (searches[side] == null) {
+            searches[side] = new MonteCarloSearch[playerType.getThreads()];
+            for (int i = 0; i < searches[side].length; i++) {
+                searches[side][i] = new MonteCarloSearch();
+            }
+        }
+        return searches[side];
+    }
+
+    @Override
+    public Game.Parameter getDifficulty() {
+        return Game.Parameter.MCTS;
+    }
+
+    // the playouts of the last move over all threads
+    @Override
+    public long getLastNodeCount() {
+        return lastMove.get().nodeCount;
+    }
+
+    @Override
+    public int chooseMove(Board board, char symbol, RandomGenerator random) {
+        // an unseeded generator here would make seeded games unrepeatable, so there is no fallback
+        if (random == null) {
+            throw new IllegalArgumentException("mcts draws its playout seeds from the game's random generator");
+        }
+        MonteCarloSearch[] searches = getSearches(symbol);
+
+        long deadline = playerType.hasTimeBudget() ? System.nanoTime() + playerType.getTimeBudgetMillis() * 1_000_000 : 0;
+        long iterations = playerType.getIterations() > 0 ? playerType.getIterations() :
+                playerType.hasTimeBudget() ? 0 : DEFAULT_ITERATIONS;
+        long iterationsPerSearch = (iterations + searches.length - 1) / searches.length;
+
+        // seeds come from the game's random, so a seeded game is played the same way every time
+        long[] seeds = new long[searches.length];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+
+        if (searches.length == 1) {
+            int cell = searches[0].search(board, symbol, iterationsPerSearch, deadline, seeds[0], playerType.isTreeReuse());
+            lastMove.get().set(searches[0].getIterations(), 0, false);
+            return cell;
+        }
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < searches.length; i++) {
+            MonteCarloSearch search = searches[i];
+            long seed = seeds[i];
+            tasks.add(() -> search.search(board, symbol, iterationsPerSearch, deadline, seed, playerType.isTreeReuse()));
+        }
+
+        try {
+            for (Future<Integer> result : MinimaxSearch.getPool(searches.length).invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        long[] visitsByCell = new long[board.getCellCount()];
+        long playouts = 0;
+        for (MonteCarloSearch search : searches) {
+            search.addRootVisits(visitsByCell);
+            playouts += search.getIterations();
+        }
+        lastMove.get().set(playouts, 0, false);
+
+        int bestCell = -1;
+        for (int cell = 0; cell < visitsByCell.length; cell++) {
+            if (visitsByCell[cell] > 0 && (bestCell < 0 || visitsByCell[cell] > visitsByCell[bestCell])) {
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+}
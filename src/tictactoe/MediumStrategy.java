@@ -0,0 +1,69 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+// immutable apart from the statistics of the last move, which are kept per thread
+public class MediumStrategy implements PlayerStrategy {
+    // on bigger boards positions rarely repeat and a cache miss costs more than the analysis itself
+    private static final int MAX_CACHED_CELLS = 9;
+    private static final ThreadLocal<ThreatScanner> SCANNERS = ThreadLocal.withInitial(ThreatScanner::new);
+    private final ThreadLocal<LastMove> lastMove = ThreadLocal.withInitial(LastMove::new);
+
+    public static class Provider implements StrategyProvider {
+        private static final MediumStrategy ENGINE = new MediumStrategy();
+
+        @Override
+        public String getName() {
+            return "medium";
+        }
+
+        @Override
+        public PlayerStrategy create(PlayerType playerType) {
+            return ENGINE;
+        }
+    }
+
+    @Override
+    public Game.Parameter getDifficulty() {
+        return Game.Parameter.MEDIUM;
+    }
+
+    // true when the move is the analysis found in the move cache
+    @Override
+    public boolean isLastMoveCached() {
+        return lastMove.get().cached;
+    }
+
+    @Override
+    public int chooseMove(Board board, char symbol, RandomGenerator random) {
+        int cell = findAttackOrDefence(board, symbol);
+        return cell >= 0 ? cell : EasyStrategy.chooseRandomCell(board, random);
+    }
+
+    // a cell completing a line of the player, else one blocking the enemy's line, else one making a fork,
+    // else one taking the enemy's fork, else -1;
+    // only this analysis is cached, the random fallback is drawn again every time
+    public int findAttackOrDefence(Board board, char symbol) {
+        if (board.getCellCount() > MAX_CACHED_CELLS) {
+            lastMove.get().set(0, 0, false);
+            return analyze(board, symbol);
+        }
+
+        MoveCache cache = MoveCache.getShared();
+        int cell = cache.get(board, symbol, Game.Parameter.MEDIUM);
+        boolean cached = cell != MoveCache.NOT_CACHED;
+
+        if (!cached) {
+            cell = analyze(board, symbol);
+            cache.put(board, symbol, Game.Parameter.MEDIUM, cell);
+        }
+        lastMove.get().set(0, 0, cached && cell >= 0);
+        return cell;
+    }
+
+    private static int analyze(Board board, char symbol) {
+        ThreatScanner scanner = SCANNERS.get();
+        scanner.scan(board, symbol);
+        return scanner.getBestMove();
+    }
+}
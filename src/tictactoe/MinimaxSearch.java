@@ -0,0 +1,452 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class MinimaxSearch {
+    public static final int WIN_SCORE = 1_000_000_000;
+    private static final int MAX_SCORE = WIN_SCORE + 1;
+    private static final int MAX_LINE_WEIGHT_EXPONENT = 5;
+    // boards bigger than this only consider cells next to a stone
+    private static final int MAX_CELLS_FOR_FULL_WIDTH = 25;
+    // the clock is read at most once per this many nodes, and more often when nodes are slow
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+    // the time between two reads of the clock is kept under this part of the budget
+    private static final int DEADLINE_CHECKS_PER_BUDGET = 50;
+    // subtrees shallower than this are not worth a fork
+    private static final int MIN_SPLIT_DEPTH = 4;
+
+    // one table per board variant, shared by every search in the JVM so positions are reused across moves and games
+    private static final Map<Integer, TranspositionTable> TABLES = new ConcurrentHashMap<>();
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final TranspositionTable table;
+    private final int[] lineWeights;
+    private final boolean restrictToNeighbours;
+    private final ForkJoinPool pool;
+    private long nodeCount = 0;
+    private int completedDepth = 0;
+    private long deadline = Long.MAX_VALUE;
+    private long maxNanosBetweenChecks = Long.MAX_VALUE;
+    private int checkInterval = DEADLINE_CHECK_INTERVAL;
+    private long nextCheckNode = 0;
+    private long lastCheckNanos;
+    private boolean aborted = false;
+
+    public MinimaxSearch(Board board) {
+        this(board, null);
+    }
+
+    // with a pool the search splits its subtrees across the pool's threads and still picks the serial search's move
+    public MinimaxSearch(Board board, ForkJoinPool pool) {
+        this.table = TABLES.computeIfAbsent(board.getSize() * 100 + board.getWinLength(),
+                key -> new TranspositionTable(board.getCellCount() <= 9 ? 1 << 16 : 1 << 18));
+        this.lineWeights = buildLineWeights(board.getWinLength());
+        this.restrictToNeighbours = board.getCellCount() > MAX_CELLS_FOR_FULL_WIDTH;
+        this.pool = pool;
+    }
+
+    private MinimaxSearch(MinimaxSearch parent) {
+        this.table = parent.table;
+        this.lineWeights = parent.lineWeights;
+        this.restrictToNeighbours = parent.restrictToNeighbours;
+        this.pool = parent.pool;
+        this.deadline = parent.deadline;
+        this.maxNanosBetweenChecks = parent.maxNanosBetweenChecks;
+        this.checkInterval = parent.checkInterval;
+        this.lastCheckNanos = System.nanoTime();
+    }
+
+    // forgets every cached position, e.g. to measure a search from a cold start
+    public static void clearTables() {
+        TABLES.values().forEach(TranspositionTable::clear);
+    }
+
+    // more threads than cores add nothing, so no pool gets more and there are never more pools than cores
+    public static ForkJoinPool getPool(int parallelism) {
+        int threads = Math.max(1, Math.min(parallelism, Runtime.getRuntime().availableProcessors()));
+        return POOLS.computeIfAbsent(threads, ForkJoinPool::new);
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // searches to the end of the game on small boards and a few plies ahead on big ones
+    public static int getDefaultDepth(Board board) {
+        int emptyCells = board.countEmptyCells();
+
+        if (emptyCells <= 10) {
+            return emptyCells;
+        } else if (board.getCellCount() <= 16) {
+            return 7;
+        } else if (board.getCellCount() <= MAX_CELLS_FOR_FULL_WIDTH) {
+            return 5;
+        }
+        return 3;
+    }
+
+    private static int[] buildLineWeights(int winLength) {
+        int[] weights = new int[winLength + 1];
+        for (int stones = 1; stones <= winLength; stones++) {
+            weights[stones] = (int) Math.pow(10, Math.min(stones - 1, MAX_LINE_WEIGHT_EXPONENT));
+        }
+        return weights;
+    }
+
+    // a quicker win scores higher; the score only depends on the position, so it can be cached
+    private static int getScoreByResult(Board board) {
+
+        if (board.isWin('O')) {
+            return WIN_SCORE - board.countStones();
+        } else if (board.isWin('X')) {
+            return board.countStones() - WIN_SCORE;
+        }
+
+        return 0;
+    }
+
+    // sums every still winnable line: positive lines for O, negative for X, growing tenfold per stone;
+    // the board keeps these lines counted per number of stones, so this takes winLength steps
+    private int evaluate(Board board) {
+        int score = 0;
+
+        for (int stones = 1; stones <= board.getWinLength(); stones++) {
+            score += lineWeights[stones] * (board.countOpenWindows('O', stones) - board.countOpenWindows('X', stones));
+        }
+        return score;
+    }
+
+    private boolean isCandidate(Board board, int cell) {
+        return board.isEmpty(cell) && (!restrictToNeighbours || board.hasNeighbour(cell));
+    }
+
+    // deepens one ply at a time and answers with the move of the last depth that finished before the deadline
+    public int getBestMoveWithinTime(Board board, char symbol, long timeBudgetMillis) {
+        long budgetNanos = timeBudgetMillis * 1_000_000;
+        lastCheckNanos = System.nanoTime();
+        deadline = lastCheckNanos + budgetNanos;
+        maxNanosBetweenChecks = Math.max(1, budgetNanos / DEADLINE_CHECKS_PER_BUDGET);
+        int bestCell = getFirstCandidate(board);
+
+        for (int depth = 1; depth <= board.countEmptyCells(); depth++) {
+            if (isPastDeadline()) {
+                break;
+            }
+            int cell = getBestMoveByMinimax(board, symbol, depth, bestCell);
+
+            if (aborted) {
+                break;
+            }
+            bestCell = cell;
+        }
+        return bestCell;
+    }
+
+    private int getFirstCandidate(Board board) {
+        for (int cell : board.getMoveOrder()) {
+            if (isCandidate(board, cell) || (restrictToNeighbours && board.countStones() == 0)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isPastDeadline() {
+        if (!aborted && deadline != Long.MAX_VALUE && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    // reads the clock every checkInterval nodes, halving the interval while that takes longer than
+    // maxNanosBetweenChecks and doubling it back while nodes are cheap, so an overrun stays a small part of the budget
+    private boolean isOutOfTime() {
+        if (aborted || deadline == Long.MAX_VALUE || nodeCount < nextCheckNode) {
+            return aborted;
+        }
+
+        long now = System.nanoTime();
+        if (now > deadline) {
+            aborted = true;
+            return true;
+        }
+
+        long sinceLastCheck = now - lastCheckNanos;
+        if (sinceLastCheck > maxNanosBetweenChecks && checkInterval > 1) {
+            checkInterval /= 2;
+        } else if (sinceLastCheck < maxNanosBetweenChecks / 4 && checkInterval < DEADLINE_CHECK_INTERVAL) {
+            checkInterval *= 2;
+        }
+        lastCheckNanos = now;
+        nextCheckNode = nodeCount + checkInterval;
+        return false;
+    }
+
+    public int getBestMoveByMinimax(Board board, char symbol, int depth) {
+        return getBestMoveByMinimax(board, symbol, depth, -1);
+    }
+
+    private int getBestMoveByMinimax(Board board, char symbol, int depth, int previousBestCell) {
+        if (pool != null && ForkJoinTask.getPool() != pool) {
+            return pool.invoke(ForkJoinTask.adapt(() -> getBestMoveByMinimax(board, symbol, depth, previousBestCell)));
+        }
+
+        if (restrictToNeighbours && board.countStones() == 0) {
+            completedDepth = depth;
+            return board.getMoveOrder()[0];
+        }
+
+        boolean isMaximizingPlayer = symbol == 'O';
+
+        int bestScore = isMaximizingPlayer ? -MAX_SCORE : MAX_SCORE;
+        int bestCell = -1;
+        int[] moveOrder = board.getMoveOrder();
+
+        // the best move of the previous depth is tried first, then the static order
+        for (int i = -1; i < moveOrder.length; i++) {
+            int cell = i < 0 ? previousBestCell : moveOrder[i];
+
+            if (cell < 0 || (i >= 0 && cell == previousBestCell) || !isCandidate(board, cell)) {
+                continue;
+            }
+
+            if (isPastDeadline()) {
+                return -1;
+            }
+
+            if (pool != null && bestCell >= 0) {
+                int[] cells = collectCandidates(board, moveOrder, i, previousBestCell);
+                bestCell = getBestRootMoveInParallel(board, symbol, depth, cells, bestScore, bestCell);
+                break;
+            }
+
+            // ties go to the lowest cell, so an equal score only has to be proven for a lower cell
+            boolean tieWins = bestCell < 0 || cell < bestCell;
+
+            board.place(cell, symbol);
+            int score = isMaximizingPlayer ?
+                    getBestScoreByMinimax(board, false, depth - 1, tieWins ? bestScore - 1 : bestScore, MAX_SCORE) :
+                    getBestScoreByMinimax(board, true, depth - 1, -MAX_SCORE, tieWins ? bestScore + 1 : bestScore);
+            board.clear(cell);
+
+            if (aborted) {
+                return -1;
+            }
+
+            boolean better = isMaximizingPlayer ?
+                    score > bestScore || (score == bestScore && tieWins) :
+                    score < bestScore || (score == bestScore && tieWins);
+
+            if (bestCell < 0 || better) {
+                bestScore = score;
+                bestCell = cell;
+            }
+        }
+        if (aborted) {
+            return -1;
+        }
+        completedDepth = depth;
+        return bestCell;
+    }
+
+    private int[] collectCandidates(Board board, int[] moveOrder, int from, int skippedCell) {
+        int[] cells = new int[moveOrder.length];
+        int count = 0;
+
+        for (int i = from; i < moveOrder.length; i++) {
+            if (moveOrder[i] != skippedCell && isCandidate(board, moveOrder[i])) {
+                cells[count++] = moveOrder[i];
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    // every younger root move is searched against the eldest move's score only, so each result is either exact or
+    // proves the move no better than the eldest, and the pick doesn't depend on which thread finishes first
+    private int getBestRootMoveInParallel(Board board, char symbol, int depth, int[] cells, int eldestScore, int eldestCell) {
+        boolean isMaximizingPlayer = symbol == 'O';
+        SearchTask[] tasks = new SearchTask[cells.length];
+
+        for (int i = 0; i < cells.length; i++) {
+            boolean tieWins = cells[i] < eldestCell;
+            int alpha = isMaximizingPlayer ? (tieWins ? eldestScore - 1 : eldestScore) : -MAX_SCORE;
+            int beta = isMaximizingPlayer ? MAX_SCORE : (tieWins ? eldestScore + 1 : eldestScore);
+
+            tasks[i] = new SearchTask(this, board, cells[i], symbol, depth - 1, alpha, beta);
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        int bestScore = eldestScore;
+        int bestCell = eldestCell;
+
+        for (SearchTask task : tasks) {
+            int score = joinTask(task);
+            boolean exact = isMaximizingPlayer ? score > task.alpha : score < task.beta;
+
+            boolean better = isMaximizingPlayer ?
+                    score > bestScore || (score == bestScore && task.cell < bestCell) :
+                    score < bestScore || (score == bestScore && task.cell < bestCell);
+
+            if (exact && better) {
+                bestScore = score;
+                bestCell = task.cell;
+            }
+        }
+        return bestCell;
+    }
+
+    private int joinTask(SearchTask task) {
+        int score = task.join();
+        nodeCount += task.search.nodeCount;
+        aborted |= task.search.aborted;
+        return score;
+    }
+
+
+    private int getBestScoreByMinimax(Board board, boolean isMaximizing, int depth, int alpha, int beta) {
+        nodeCount++;
+
+        if (isOutOfTime()) {
+            return 0;
+        } else if (board.isGameOver()) {
+            return getScoreByResult(board);
+        } else if (depth <= 0) {
+            return evaluate(board);
+        }
+
+        int symmetry = board.getCanonicalSymmetry();
+        long key = board.getKey(symmetry);
+
+        long entry = table.probe(key);
+        int cachedCell = TranspositionTable.NO_MOVE;
+
+        if (entry != TranspositionTable.MISS) {
+            // only entries of the same depth cut the search, which keeps the result independent of what is cached
+            if (TranspositionTable.getDepth(entry) == depth) {
+                int cachedScore = TranspositionTable.getScore(entry);
+
+                switch (TranspositionTable.getFlag(entry)) {
+                    case TranspositionTable.EXACT -> {
+                        return cachedScore;
+                    }
+                    case TranspositionTable.LOWER_BOUND -> {
+                        if (cachedScore >= beta) return cachedScore;
+                    }
+                    case TranspositionTable.UPPER_BOUND -> {
+                        if (cachedScore <= alpha) return cachedScore;
+                    }
+                }
+            }
+            int bestCell = TranspositionTable.getBestCell(entry);
+            cachedCell = bestCell < 0 ? bestCell : board.inverseTransformCell(symmetry, bestCell);
+        }
+
+        char symbol = isMaximizing ? 'O' : 'X';
+        int bestScore = isMaximizing ? -MAX_SCORE : MAX_SCORE;
+        int bestCell = TranspositionTable.NO_MOVE;
+        int windowAlpha = alpha;
+        int windowBeta = beta;
+        int[] moveOrder = board.getMoveOrder();
+
+        // the cached best move is tried first, then the static order
+        for (int i = -1; i < moveOrder.length && windowAlpha < windowBeta; i++) {
+            int cell = i < 0 ? cachedCell : moveOrder[i];
+
+            if (cell < 0 || (i >= 0 && cell == cachedCell) || !isCandidate(board, cell)) {
+                continue;
+            }
+
+            // young brothers wait: once the eldest move has set the window, its siblings are searched in parallel
+            if (pool != null && bestCell >= 0 && depth >= MIN_SPLIT_DEPTH) {
+                SearchTask[] tasks = createSiblingTasks(board, collectCandidates(board, moveOrder, i, cachedCell),
+                        symbol, depth - 1, windowAlpha, windowBeta);
+                ForkJoinTask.invokeAll(tasks);
+
+                for (SearchTask task : tasks) {
+                    int score = joinTask(task);
+
+                    if (isMaximizing ? score > bestScore : score < bestScore) {
+                        bestScore = score;
+                        bestCell = task.cell;
+                    }
+                }
+                break;
+            }
+
+            board.place(cell, symbol);
+            int score = getBestScoreByMinimax(board, !isMaximizing, depth - 1, windowAlpha, windowBeta);
+            board.clear(cell);
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (isMaximizing ? score > bestScore : score < bestScore) {
+                bestScore = score;
+                bestCell = cell;
+            }
+
+            if (isMaximizing) {
+                windowAlpha = Math.max(windowAlpha, bestScore);
+            } else {
+                windowBeta = Math.min(windowBeta, bestScore);
+            }
+        }
+
+        if (aborted) {
+            return 0;
+        }
+
+        int flag = bestScore <= alpha ? TranspositionTable.UPPER_BOUND :
+                bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                        TranspositionTable.EXACT;
+
+        table.store(key, bestScore, flag, bestCell < 0 ? bestCell : board.transformCell(symmetry, bestCell), depth);
+        return bestScore;
+    }
+
+    private SearchTask[] createSiblingTasks(Board board, int[] cells, char symbol, int depth, int alpha, int beta) {
+        SearchTask[] tasks = new SearchTask[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            tasks[i] = new SearchTask(this, board, cells[i], symbol, depth, alpha, beta);
+        }
+        return tasks;
+    }
+
+    // searches one move on its own copy of the board with its own node counter; never serialized
+    @SuppressWarnings("serial")
+    private static class SearchTask extends RecursiveTask<Integer> {
+        private final MinimaxSearch search;
+        private final Board board;
+        private final int cell;
+        private final boolean isMaximizing;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+
+        private SearchTask(MinimaxSearch parent, Board board, int cell, char symbol, int depth, int alpha, int beta) {
+            this.search = new MinimaxSearch(parent);
+            this.board = board.copy();
+            this.board.place(cell, symbol);
+            this.cell = cell;
+            this.isMaximizing = symbol != 'O';
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            return search.getBestScoreByMinimax(board, isMaximizing, depth, alpha, beta);
+        }
+    }
+}
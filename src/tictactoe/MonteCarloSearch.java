@@ -0,0 +1,267 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Monte Carlo tree search: UCT picks the path through the tree, a random game from its end scores it.
+// The tree lives in parallel arrays and every playout takes its moves back on the search's own board,
+// so once the arrays have grown an iteration allocates nothing.
+public class MonteCarloSearch {
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int INITIAL_NODES = 1 << 12;
+    private static final int MAX_NODES = 1 << 20;
+    private static final int MAX_CELLS_FOR_FULL_WIDTH = 25;
+    private static final int CLOCK_CHECK_INTERVAL = 16;
+    private static final int UNEXPANDED = -1;
+
+    private final SplitMix64 random = new SplitMix64();
+
+    // per node: the cell played to reach it, its parent, its children as a block of consecutive nodes,
+    // the playouts through it and their result for the player who made its move (1 win, 0.5 draw)
+    private int[] moves = new int[INITIAL_NODES];
+    private int[] parents = new int[INITIAL_NODES];
+    private int[] firstChildren = new int[INITIAL_NODES];
+    private int[] childCounts = new int[INITIAL_NODES];
+    private int[] visits = new int[INITIAL_NODES];
+    private double[] rewards = new double[INITIAL_NODES];
+    private int nodeCount;
+    private int root;
+
+    private Board board;
+    private Board rootBoard;
+    private char rootSymbol;
+    private int[] path;
+    private long iterations;
+
+    // plays playouts from the position until either budget runs out (0 for no limit on iterations)
+    // and returns the most visited move; with reuse the tree of the previous search is kept when the
+    // position follows from it by one move of each player
+    public int search(Board position, char symbol, long maxIterations, long deadlineNanos, long seed, boolean reuse) {
+        random.state = seed;
+        if (!reuse || !moveRoot(position, symbol)) {
+            newTree(position, symbol);
+        }
+
+        iterations = 0;
+        while (maxIterations == 0 || iterations < maxIterations) {
+            if (iterations % CLOCK_CHECK_INTERVAL == 0 && deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0) {
+                break;
+            }
+            iterate();
+            iterations++;
+        }
+        return getBestMove();
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    // adds the visits of every root move to visitsByCell, so root-parallel searches can be combined
+    public void addRootVisits(long[] visitsByCell) {
+        for (int child = firstChildren[root]; child < firstChildren[root] + childCounts[root]; child++) {
+            visitsByCell[moves[child]] += visits[child];
+        }
+    }
+
+    private void newTree(Board position, char symbol) {
+        board = position.copy();
+        rootBoard = position.copy();
+        rootSymbol = symbol;
+        path = new int[board.getCellCount()];
+        nodeCount = 0;
+        root = addNode(-1, -1);
+        expand(root, symbol);
+    }
+
+    private boolean moveRoot(Board position, char symbol) {
+        if (rootBoard == null || symbol != rootSymbol || nodeCount > MAX_NODES / 2 ||
+                position.getCellCount() != rootBoard.getCellCount() ||
+                position.getWinLength() != rootBoard.getWinLength() ||
+                position.countStones() != rootBoard.countStones() + 2) {
+            return false;
+        }
+
+        long[] before = rootBoard.getStones();
+        long[] after = position.getStones();
+        for (int word = 0; word < before.length; word++) {
+            if ((before[word] & ~after[word]) != 0) {
+                return false;
+            }
+        }
+
+        char opponent = symbol == 'X' ? 'O' : 'X';
+        int node = findChild(findChild(root, position, symbol), position, opponent);
+        if (node < 0 || firstChildren[node] == UNEXPANDED) {
+            return false;
+        }
+
+        root = node;
+        parents[root] = -1;
+        board = position.copy();
+        rootBoard = position.copy();
+        return true;
+    }
+
+    private int findChild(int node, Board position, char symbol) {
+        if (node < 0 || firstChildren[node] == UNEXPANDED) {
+            return -1;
+        }
+        for (int child = firstChildren[node]; child < firstChildren[node] + childCounts[node]; child++) {
+            if (rootBoard.isEmpty(moves[child]) && position.getSymbol(moves[child]) == symbol) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    private void iterate() {
+        int node = root;
+        char symbol = rootSymbol;
+        int depth = 0;
+
+        while (firstChildren[node] != UNEXPANDED && childCounts[node] > 0) {
+            node = selectChild(node);
+            board.place(moves[node], symbol);
+            path[depth++] = moves[node];
+            symbol = symbol == 'X' ? 'O' : 'X';
+        }
+
+        if (!board.isGameOver() && firstChildren[node] == UNEXPANDED && visits[node] > 0 && expand(node, symbol)) {
+            node = firstChildren[node];
+            board.place(moves[node], symbol);
+            path[depth++] = moves[node];
+            symbol = symbol == 'X' ? 'O' : 'X';
+        }
+
+        char winner = playout(symbol, depth);
+
+        // the player who made the move into a node is the one not to move after it
+        char mover = symbol == 'X' ? 'O' : 'X';
+        for (; node >= 0; node = parents[node]) {
+            visits[node]++;
+            rewards[node] += winner == mover ? 1 : winner == Board.EMPTY ? 0.5 : 0;
+            mover = mover == 'X' ? 'O' : 'X';
+        }
+
+        while (depth > 0) {
+            board.clear(path[--depth]);
+        }
+    }
+
+    // first every child once, then the child with the highest upper confidence bound
+    private int selectChild(int node) {
+        double logVisits = Math.log(visits[node]);
+        int bestChild = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+
+        for (int child = firstChildren[node]; child < firstChildren[node] + childCounts[node]; child++) {
+            if (visits[child] == 0) {
+                return child;
+            }
+            double value = rewards[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+            if (value > bestValue) {
+                bestValue = value;
+                bestChild = child;
+            }
+        }
+        return bestChild;
+    }
+
+    // random moves to the end of the game, which are taken back again; the path cells above depth stay untouched
+    private char playout(char symbol, int depth) {
+        int moveCount = depth;
+
+        while (!board.isGameOver()) {
+            int cell = EasyStrategy.chooseRandomCell(board, random);
+            board.place(cell, symbol);
+            path[moveCount++] = cell;
+            symbol = symbol == 'X' ? 'O' : 'X';
+        }
+        char winner = board.getWinner();
+
+        while (moveCount > depth) {
+            board.clear(path[--moveCount]);
+        }
+        return winner;
+    }
+
+    // adds a child for every candidate move; boards over 25 cells only consider cells next to a stone
+    private boolean expand(int node, char symbol) {
+        if (board.isGameOver()) {
+            return false;
+        }
+
+        boolean restrictToNeighbours = board.getCellCount() > MAX_CELLS_FOR_FULL_WIDTH;
+        int first = nodeCount;
+
+        if (restrictToNeighbours && board.countStones() == 0) {
+            addNode(node, board.getMoveOrder()[0]);
+        } else {
+            for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+                if (!restrictToNeighbours || board.hasNeighbour(cell)) {
+                    if (nodeCount == MAX_NODES) {
+                        nodeCount = first;
+                        return false;
+                    }
+                    addNode(node, cell);
+                }
+            }
+        }
+
+        firstChildren[node] = first;
+        childCounts[node] = nodeCount - first;
+        return childCounts[node] > 0;
+    }
+
+    private int addNode(int parent, int move) {
+        if (nodeCount == moves.length) {
+            int capacity = moves.length * 2;
+            moves = Arrays.copyOf(moves, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            childCounts = Arrays.copyOf(childCounts, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            rewards = Arrays.copyOf(rewards, capacity);
+        }
+
+        int node = nodeCount++;
+        moves[node] = move;
+        parents[node] = parent;
+        firstChildren[node] = UNEXPANDED;
+        childCounts[node] = 0;
+        visits[node] = 0;
+        rewards[node] = 0;
+        return node;
+    }
+
+    // the most visited root move, the lowest cell on a tie
+    private int getBestMove() {
+        int bestCell = -1;
+        int bestVisits = -1;
+
+        for (int child = firstChildren[root]; child < firstChildren[root] + childCounts[root]; child++) {
+            if (visits[child] > bestVisits || (visits[child] == bestVisits && moves[child] < bestCell)) {
+                bestVisits = visits[child];
+                bestCell = moves[child];
+            }
+        }
+        return bestCell;
+    }
+
+    // SplitMix64 as in SplittableRandom, but reseeded in place for every search; playouts draw millions of numbers,
+    // so this avoids both the allocation of a generator per search and the atomic update inside java.util.Random
+    private static final class SplitMix64 implements RandomGenerator {
+        private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+        private long state;
+
+        @Override
+        public long nextLong() {
+            long z = state += GOLDEN_GAMMA;
+            z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+            return z ^ z >>> 31;
+        }
+    }
+}
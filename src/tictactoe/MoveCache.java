@@ -0,0 +1,193 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// a bounded cache of decisions shared by all games in the process, keyed by the exact position, the side to move
+// and the difficulty; only deterministic decisions belong here, never a random pick.
+// The entries are spread over stripes, each an LRU map behind its own lock, so games rarely wait for each other.
+// The shared capacity is read from the system property "tictactoe.moveCache", 0 turns the cache off.
+public class MoveCache {
+    public static final String CAPACITY_PROPERTY = "tictactoe.moveCache";
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int NOT_CACHED = Integer.MIN_VALUE;
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private static final MoveCache SHARED = new MoveCache(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    // one probe key per thread, so a lookup allocates nothing; only an insert copies the position into a new key
+    private static final ThreadLocal<Key> PROBES = ThreadLocal.withInitial(Key::new);
+
+    private final int capacity;
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MoveCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative cache capacity " + capacity);
+        }
+        this.capacity = capacity;
+        this.stripes = new Stripe[STRIPES];
+
+        int stripeCapacity = Math.max(1, (capacity + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    public static MoveCache getShared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    // the cell stored for the position, or NOT_CACHED
+    public int get(Board board, char symbol, Game.Parameter difficulty) {
+        if (!isEnabled()) {
+            return NOT_CACHED;
+        }
+
+        Key key = PROBES.get().set(board, symbol, difficulty);
+        Integer cell = stripeOf(key).get(key);
+
+        if (cell == null) {
+            misses.increment();
+            return NOT_CACHED;
+        }
+        hits.increment();
+        return cell;
+    }
+
+    public void put(Board board, char symbol, Game.Parameter difficulty, int cell) {
+        if (isEnabled()) {
+            Key key = new Key().set(board, symbol, difficulty);
+            stripeOf(key).put(key, cell);
+        }
+    }
+
+    // the top bits pick the stripe, the hash map inside it indexes by the low bits
+    private Stripe stripeOf(Key key) {
+        return stripes[key.hash >>> (Integer.SIZE - STRIPE_BITS)];
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return String.format("Move cache: %d hits (%.1f%%), %d misses, %d evictions, %d of %d entries",
+                hits, lookups == 0 ? 0 : 100.0 * hits / lookups, getMisses(), getEvictions(), size(), capacity);
+    }
+
+    // never serialized
+    @SuppressWarnings("serial")
+    private class Stripe extends LinkedHashMap<Key, Integer> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+
+        // the access order of a LinkedHashMap changes on every get, so reads need the lock as well
+        @Override
+        public synchronized Integer get(Object key) {
+            return super.get(key);
+        }
+
+        @Override
+        public synchronized Integer put(Key key, Integer cell) {
+            return super.put(key, cell);
+        }
+
+        @Override
+        public synchronized void clear() {
+            super.clear();
+        }
+
+        @Override
+        public synchronized int size() {
+            return super.size();
+        }
+    }
+
+    // mutable only while it is a thread's probe; a key stored in a stripe is never set again
+    private static final class Key {
+        private long[] stones = new long[0];
+        private int size;
+        private int winLength;
+        private char symbol;
+        private Game.Parameter difficulty;
+        private int hash;
+
+        private Key set(Board board, char symbol, Game.Parameter difficulty) {
+            if (stones.length != board.getStoneWordCount()) {
+                stones = new long[board.getStoneWordCount()];
+            }
+            board.copyStones(stones);
+            this.size = board.getSize();
+            this.winLength = board.getWinLength();
+            this.symbol = symbol;
+            this.difficulty = difficulty;
+
+            long hash = board.getHash() ^ (size * 100L + winLength) * 0x9E3779B97F4A7C15L ^
+                    (symbol * 4L + difficulty.ordinal()) * 0xC2B2AE3D27D4EB4FL;
+            this.hash = (int) (hash ^ hash >>> 32);
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key key)) {
+                return false;
+            }
+            return hash == key.hash && size == key.size && winLength == key.winLength &&
+                    symbol == key.symbol && difficulty == key.difficulty && Arrays.equals(stones, key.stones);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package tictactoe;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.EventType;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// statistics of every AI decision per difficulty: decision time histogram, nodes, depth, cache hits and allocation.
+// Off unless the system property "tictactoe.metrics" is true, and then published as MXBeans; independently every
+// decision is a "tictactoe.AIMove" event when a Flight Recorder recording enables it. With both off a decision
+// costs two System.nanoTime() calls more.
+public class MoveMetrics {
+    public static final String ENABLED_PROPERTY = "tictactoe.metrics";
+    public static final String OBJECT_NAME = "tictactoe:type=MoveMetrics,difficulty=";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    // tells without creating an event whether a recording wants them
+    private static final EventType MOVE_EVENT = EventType.getEventType(AiMoveEvent.class);
+    private static final MoveMetrics INSTANCE = new MoveMetrics();
+
+    private final Map<Game.Parameter, DifficultyMetrics> metrics = new EnumMap<>(Game.Parameter.class);
+
+    private MoveMetrics() {
+        for (Game.Parameter difficulty : Game.Parameter.values()) {
+            if (difficulty != Game.Parameter.USER) {
+                metrics.put(difficulty, new DifficultyMetrics());
+            }
+        }
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+                bean.isThreadAllocatedMemorySupported() ? bean : null;
+    }
+
+    private void register() {
+        try {
+            for (Map.Entry<Game.Parameter, DifficultyMetrics> entry : metrics.entrySet()) {
+                ObjectName name = new ObjectName(OBJECT_NAME + entry.getKey().name().toLowerCase());
+                if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(entry.getValue(), name);
+                }
+            }
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static MoveMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public DifficultyMetrics get(Game.Parameter difficulty) {
+        return metrics.get(difficulty);
+    }
+
+    // call right before a decision and pass the result to end()
+    public static long begin() {
+        return System.nanoTime();
+    }
+
+    // bytes allocated by the current thread so far, 0 when metrics are off or the JVM can't tell
+    public static long allocatedBytes() {
+        return ENABLED && THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // records a decision that started at startNanos; the strategy, if any, tells the search statistics
+    public static void end(Game.Parameter difficulty, PlayerStrategy strategy, char symbol, int cell,
+                           long startNanos, long allocatedBefore) {
+        long nanos = System.nanoTime() - startNanos;
+        if (!ENABLED && !MOVE_EVENT.isEnabled()) {
+            return;
+        }
+
+        long allocated = ENABLED && THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore : 0;
+        long nodes = strategy == null ? 0 : strategy.getLastNodeCount();
+        int depth = strategy == null ? 0 : strategy.getLastDepth();
+        boolean cached = strategy != null && strategy.isLastMoveCached();
+
+        if (ENABLED) {
+            INSTANCE.metrics.get(difficulty).record(nanos, nodes, depth, cached, allocated);
+        }
+
+        AiMoveEvent event = new AiMoveEvent();
+        if (event.isEnabled()) {
+            event.difficulty = difficulty.name().toLowerCase();
+            event.symbol = symbol;
+            event.cell = cell;
+            event.decisionNanos = nanos;
+            event.nodes = nodes;
+            event.depth = depth;
+            event.cached = cached;
+            event.allocatedBytes = allocated;
+            event.commit();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<Game.Parameter, DifficultyMetrics> entry : metrics.entrySet()) {
+            DifficultyMetrics difficulty = entry.getValue();
+            if (difficulty.getMoves() > 0) {
+                summary.append(String.format("%s: %d moves, mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms, " +
+                                "%d nodes, %d cached, %d bytes allocated%n",
+                        entry.getKey().name().toLowerCase(), difficulty.getMoves(), difficulty.getMeanMillis(),
+                        difficulty.getP50Millis(), difficulty.getP99Millis(), difficulty.getMaxMillis(),
+                        difficulty.getNodes(), difficulty.getCacheHits(), difficulty.getAllocatedBytes()));
+            }
+        }
+        return summary.toString();
+    }
+
+    public static class DifficultyMetrics implements MoveMetricsMXBean {
+        private static final double NANOS_PER_MILLI = 1e6;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos, long nodes, int depth, boolean cached, long allocated) {
+            latency.record(nanos);
+            this.nodes.add(nodes);
+            maxDepth.accumulate(depth);
+            if (cached) {
+                cacheHits.increment();
+            }
+            allocatedBytes.add(allocated);
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public long getMoves() {
+            return latency.getCount();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return latency.getMean() / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return latency.getValueAtPercentile(50) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP90Millis() {
+            return latency.getValueAtPercentile(90) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return latency.getValueAtPercentile(99) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return latency.getMax() / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public long getNodes() {
+            return nodes.sum();
+        }
+
+        @Override
+        public int getMaxDepth() {
+            return (int) maxDepth.get();
+        }
+
+        @Override
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        @Override
+        public void reset() {
+            latency.reset();
+            nodes.reset();
+            cacheHits.reset();
+            allocatedBytes.reset();
+            maxDepth.reset();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package tictactoe;
+
+// the AI moves of one difficulty as seen in JConsole or any JMX client under "tictactoe:type=MoveMetrics,difficulty=..."
+public interface MoveMetricsMXBean {
+
+    long getMoves();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    long getNodes();
+
+    int getMaxDepth();
+
+    long getCacheHits();
+
+    long getAllocatedBytes();
+
+    void reset();
+}
@@ -1,90 +1,106 @@
 package tictactoe;
 
+// reads "row col" straight from the characters of the input line and answers with the cell index, or a negative
+// error code for the message to show; stateless and allocation-free, so any thread or session can use it
 public class MoveValidator {
     public static final String CELL_IS_OCCUPIED = "This cell is occupied! Choose another one!";
-    public static final String OUT_OF_RANGE = "Coordinates should be from 1 to 3!";
+    public static final String OUT_OF_RANGE = "Coordinates should be from 1 to %d!";
     public static final String NOT_A_NUMBER = "You should enter numbers!";
     public static final String INVALID_COORDINATES_NUMBER = "Please, enter only 2 numbers";
     public static final int MIN_USER_COORDINATE = 1;
-    public static final int MAX_USER_COORDINATE = 3;
     public static final int ARRAY_INDEX_OFFSET = 1;
-    private String error;
 
-    public String getError() {
-        return error;
-    }
-
-    public void checkCoordinates(String userInput, char[][] field) {
+    // error codes in the order they are checked
+    public static final int ERROR_COORDINATES_NUMBER = -1;
+    public static final int ERROR_NOT_A_NUMBER = -2;
+    public static final int ERROR_OUT_OF_RANGE = -3;
+    public static final int ERROR_CELL_IS_OCCUPIED = -4;
 
-        String[] coordinates = userInput.split(" ");
-        checkNumberOfCoordinates(coordinates);
+    // bigger numbers are only out of range, so digits past this don't need to be added up
+    private static final int MAX_VALUE = 1_000_000;
+    private static final String[] OUT_OF_RANGE_MESSAGES = buildOutOfRangeMessages();
 
-        if (error == null) {
-            checkCoordinatesAreNumeric(coordinates);
-            checkCoordinatesAreWithinRange(coordinates);
-            checkCoordinatesAreAvailable(coordinates, field);
-        }
+    private MoveValidator() {
     }
 
-    private void checkCoordinatesAreAvailable(String[] coordinates, char[][] field) {
-
-        int[] humanCoordinatesInt = convertCoordinatesToInt(coordinates);
-        int[] coordinatesInt = adjustCoordinatesByOffset(humanCoordinatesInt);
-
-        int y = coordinatesInt[0];
-        int x = coordinatesInt[1];
-
-        if (field[y][x] != ' ') {
-            error = CELL_IS_OCCUPIED;
+    private static String[] buildOutOfRangeMessages() {
+        String[] messages = new String[Board.MAX_SIZE + 1];
+        for (int size = Board.MIN_SIZE; size <= Board.MAX_SIZE; size++) {
+            messages[size] = String.format(OUT_OF_RANGE, size);
         }
+        return messages;
     }
 
-    private void checkCoordinatesAreWithinRange(String[] coordinates) {
-        int[] coordinatesInt = convertCoordinatesToInt(coordinates);
+    // the cell of a move on an empty cell, or an ERROR_ code; numbers are separated by any spaces or tabs
+    // and may carry a sign as Integer.parseInt allows
+    public static int parse(CharSequence input, Board board) {
+        int length = input.length();
+        int numbers = 0;
+        boolean numeric = true;
+        int row = 0;
+        int col = 0;
+
+        int i = 0;
+        while (true) {
+            while (i < length && isBlank(input.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
 
-        for (int coordinate : coordinatesInt) {
-            error =
-                    coordinate >= MIN_USER_COORDINATE &&
-                            coordinate <= MAX_USER_COORDINATE ?
-                            error : OUT_OF_RANGE;
-        }
-    }
+            boolean negative = false;
+            if (input.charAt(i) == '-' || input.charAt(i) == '+') {
+                negative = input.charAt(i) == '-';
+                i++;
+            }
 
-    private void checkCoordinatesAreNumeric(String[] coordinatesString) {
-        for (String coordinate : coordinatesString) {
-            try {
-                Integer.parseInt(coordinate);
-            } catch (Exception e) {
-                error = NOT_A_NUMBER;
+            int value = 0;
+            int digits = 0;
+            while (i < length && !isBlank(input.charAt(i))) {
+                char c = input.charAt(i++);
+                if (c >= '0' && c <= '9') {
+                    value = Math.min(value * 10 + (c - '0'), MAX_VALUE);
+                    digits++;
+                } else {
+                    numeric = false;
+                }
+            }
+            numeric &= digits > 0;
+            value = negative ? -value : value;
+
+            numbers++;
+            if (numbers == 1) {
+                row = value;
+            } else if (numbers == 2) {
+                col = value;
             }
         }
-    }
 
-    private void checkNumberOfCoordinates(String[] coordinatesString) {
-        if (coordinatesString.length != 2) {
-            error = INVALID_COORDINATES_NUMBER;
+        int size = board.getSize();
+        if (numbers != 2) {
+            return ERROR_COORDINATES_NUMBER;
+        } else if (!numeric) {
+            return ERROR_NOT_A_NUMBER;
+        } else if (row < MIN_USER_COORDINATE || row > size || col < MIN_USER_COORDINATE || col > size) {
+            return ERROR_OUT_OF_RANGE;
         }
-    }
-
-    private int[] convertCoordinatesToInt(String[] coordinatesString) {
-        int[] coordinates = new int[coordinatesString.length];
 
-        for (int i = 0; i < coordinatesString.length; i++) {
-            coordinates[i] = Integer.valueOf(coordinatesString[i]);
-        }
-        return coordinates;
+        int cell = board.toCell(row - ARRAY_INDEX_OFFSET, col - ARRAY_INDEX_OFFSET);
+        return board.isEmpty(cell) ? cell : ERROR_CELL_IS_OCCUPIED;
     }
 
-    public int[] convertUserInputToArrayCoordinates(String userInput) {
-        int[] humanCoordinatesInt = convertCoordinatesToInt(userInput.split(" "));
-        int[] coordinatesInt = adjustCoordinatesByOffset(humanCoordinatesInt);
-
-        return coordinatesInt;
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
     }
 
-    private int[] adjustCoordinatesByOffset(int[] coordinates) {
-        int y = coordinates[0] - ARRAY_INDEX_OFFSET;
-        int x = coordinates[1] - ARRAY_INDEX_OFFSET;
-        return new int[]{y,x};
+    public static String getMessage(int error, Board board) {
+        return switch (error) {
+            case ERROR_COORDINATES_NUMBER -> INVALID_COORDINATES_NUMBER;
+            case ERROR_NOT_A_NUMBER -> NOT_A_NUMBER;
+            case ERROR_OUT_OF_RANGE -> OUT_OF_RANGE_MESSAGES[board.getSize()];
+            case ERROR_CELL_IS_OCCUPIED -> CELL_IS_OCCUPIED;
+            default -> throw new IllegalArgumentException("Not an error code: " + error);
+        };
     }
 }
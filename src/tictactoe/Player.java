@@ -1,10 +1,9 @@
 package tictactoe;
 
-
-import static tictactoe.Game.getUserInput;
-
 public class Player {
     public static final String ENTER_COORDINATES = "Enter the coordinates: ";
+    public static final String UNDO = "undo";
+    public static final String NOTHING_TO_UNDO = "Nothing to undo!";
     char symbol;
     char enemySymbol;
     String type;
@@ -27,31 +26,34 @@ public class Player {
         return type;
     }
 
+    // asks until a valid move is entered
     public void chooseCoordinates(Game game) {
-        char[][] field = game.getField();
-
-        System.out.print(ENTER_COORDINATES);
-        String userInput = getUserInput();
-
-        MoveValidator validator = new MoveValidator();
-        validator.checkCoordinates(userInput, field);
-
-        String error = validator.getError();
-        if (error == null) {
-            int[] coordinates = validator.convertUserInputToArrayCoordinates(userInput);
-            setCoordinates(field, coordinates);
-        } else {
-            System.out.println(error);
-            chooseCoordinates(game);
+        while (true) {
+            game.getOutput().print(ENTER_COORDINATES);
+            String userInput = game.getUserInput();
+
+            if (userInput.trim().equalsIgnoreCase(UNDO)) {
+                if (!game.takeBackTurn()) {
+                    game.getOutput().println(NOTHING_TO_UNDO);
+                }
+                continue;
+            }
+
+            int cell = MoveValidator.parse(userInput, game.getBoard());
+            if (cell >= 0) {
+                game.makeMove(cell, symbol);
+                return;
+            }
+            game.getOutput().println(MoveValidator.getMessage(cell, game.getBoard()));
         }
     }
 
-    public void setCoordinates(char[][] field, int[] coordinates) {
+    public void setCoordinates(Game game, int[] coordinates) {
 
         int y = coordinates[0];
         int x = coordinates[1];
 
-        field[y][x] = symbol;
+        game.makeMove(game.getBoard().toCell(y, x), symbol);
     }
 
 
@@ -0,0 +1,50 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+// picks moves without any console I/O, so AI players can be run headless by GameRunner;
+// one engine serves all games of a player type, so implementations must be thread-safe
+public interface PlayerStrategy {
+
+    // the cell to play for 'symbol' on a board where the game isn't over yet; all randomness comes from 'random',
+    // the game's own seeded generator and never null, so a game played again from the same seed makes the same moves
+    int chooseMove(Board board, char symbol, RandomGenerator random);
+
+    default Game.Parameter getDifficulty() {
+        return Game.Parameter.CUSTOM;
+    }
+
+    // what the last chooseMove() on the calling thread did, for MoveMetrics
+    default long getLastNodeCount() {
+        return 0;
+    }
+
+    default int getLastDepth() {
+        return 0;
+    }
+
+    default boolean isLastMoveCached() {
+        return false;
+    }
+
+    // the shared engine for the player type
+    static PlayerStrategy forType(PlayerType playerType) {
+        if (playerType.getParameter() == Game.Parameter.USER) {
+            throw new IllegalArgumentException("A user player needs a console");
+        }
+        return StrategyRegistry.getEngine(playerType);
+    }
+
+    // the statistics of a search, kept per thread by engines that share one instance between games
+    class LastMove {
+        long nodeCount;
+        int depth;
+        boolean cached;
+
+        void set(long nodeCount, int depth, boolean cached) {
+            this.nodeCount = nodeCount;
+            this.depth = depth;
+            this.cached = cached;
+        }
+    }
+}
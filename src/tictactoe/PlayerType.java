@@ -0,0 +1,161 @@
+package tictactoe;
+
+// a player type as typed in the start command: a Game.Parameter plus optional ':'-separated options,
+// e.g. "hard:50ms" for a time budget per move, "hard:t8" for a search on 8 threads
+// or "hard:live" to search 3x3 positions instead of looking them up in the Tablebase;
+// mcts takes the time and thread options too, a plain number of playouts per move ("mcts:50000")
+// and "mcts:reuse" to keep the search tree from one move to the next; the type of an engine from a StrategyProvider
+// is its name with the time and thread options
+public class PlayerType {
+    public static final String OPTION_DELIMITER = ":";
+    // a day per move is more than any game needs and keeps the budget in nanoseconds far from overflowing
+    public static final long MAX_TIME_BUDGET_MILLIS = 24L * 60 * 60 * 1000;
+    public static final int MAX_THREADS = 64;
+    private static final String MILLIS_SUFFIX = "ms";
+    private static final String SECONDS_SUFFIX = "s";
+    private static final String THREADS_PREFIX = "t";
+    private static final String LIVE_SEARCH = "live";
+    private static final String TREE_REUSE = "reuse";
+
+    private final String text;
+    private final String name;
+    private final Game.Parameter parameter;
+    private final long timeBudgetMillis;
+    private final int threads;
+    private final boolean liveSearch;
+    private final long iterations;
+    private final boolean treeReuse;
+
+    private PlayerType(String text, String name, Game.Parameter parameter, long timeBudgetMillis, int threads,
+                       boolean liveSearch, long iterations, boolean treeReuse) {
+        this.text = text;
+        this.name = name;
+        this.parameter = parameter;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.threads = threads;
+        this.liveSearch = liveSearch;
+        this.iterations = iterations;
+        this.treeReuse = treeReuse;
+    }
+
+    // the type without options in lower case, e.g. "hard"
+    public String getName() {
+        return name;
+    }
+
+    public Game.Parameter getParameter() {
+        return parameter;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public boolean hasTimeBudget() {
+        return timeBudgetMillis > 0;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isLiveSearch() {
+        return liveSearch;
+    }
+
+    // 0 when no number of playouts was given
+    public long getIterations() {
+        return iterations;
+    }
+
+    public boolean isTreeReuse() {
+        return treeReuse;
+    }
+
+    // the type as it was typed
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    public static PlayerType parse(String type) {
+        String[] parts = type.split(OPTION_DELIMITER);
+        String name = parts[0].toLowerCase();
+        Game.Parameter parameter = parseParameter(name);
+        long timeBudgetMillis = 0;
+        int threads = 1;
+        boolean liveSearch = false;
+        long iterations = 0;
+        boolean treeReuse = false;
+        boolean searching = parameter == Game.Parameter.HARD || parameter == Game.Parameter.MCTS ||
+                parameter == Game.Parameter.CUSTOM;
+
+        for (int i = 1; i < parts.length; i++) {
+            String option = parts[i].toLowerCase();
+
+            if (parameter == Game.Parameter.HARD && option.equals(LIVE_SEARCH)) {
+                liveSearch = true;
+            } else if (parameter == Game.Parameter.MCTS && option.equals(TREE_REUSE)) {
+                treeReuse = true;
+            } else if (parameter == Game.Parameter.MCTS && isNumber(option)) {
+                iterations = parsePositive(option);
+            } else if (searching && option.endsWith(MILLIS_SUFFIX)) {
+                timeBudgetMillis = parseTimeBudget(option.substring(0, option.length() - MILLIS_SUFFIX.length()), 1);
+            } else if (searching && option.endsWith(SECONDS_SUFFIX)) {
+                timeBudgetMillis = parseTimeBudget(option.substring(0, option.length() - SECONDS_SUFFIX.length()), 1000);
+            } else if (searching && option.startsWith(THREADS_PREFIX)) {
+                threads = parseThreads(option.substring(THREADS_PREFIX.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option \"" + option + "\" for " + parts[0]);
+            }
+        }
+        return new PlayerType(type, name, parameter, timeBudgetMillis, threads, liveSearch, iterations, treeReuse);
+    }
+
+    private static Game.Parameter parseParameter(String name) {
+        if (!name.equals(Game.Parameter.CUSTOM.name().toLowerCase())) {
+            for (Game.Parameter parameter : Game.Parameter.values()) {
+                if (parameter.name().equalsIgnoreCase(name)) {
+                    return parameter;
+                }
+            }
+        }
+        if (StrategyRegistry.hasProvider(name)) {
+            return Game.Parameter.CUSTOM;
+        }
+        throw new IllegalArgumentException("Unknown player type " + name);
+    }
+
+    private static boolean isNumber(String option) {
+        return !option.isEmpty() && option.chars().allMatch(Character::isDigit);
+    }
+
+    private static long parseTimeBudget(String number, long millisPerUnit) {
+        long millis;
+        try {
+            millis = Math.multiplyExact(parsePositive(number), millisPerUnit);
+        } catch (ArithmeticException e) {
+            millis = Long.MAX_VALUE;
+        }
+        if (millis > MAX_TIME_BUDGET_MILLIS) {
+            throw new IllegalArgumentException("Time budget " + number + " is longer than " + MAX_TIME_BUDGET_MILLIS + " ms");
+        }
+        return millis;
+    }
+
+    private static int parseThreads(String number) {
+        long threads = parsePositive(number);
+        if (threads > MAX_THREADS) {
+            throw new IllegalArgumentException("At most " + MAX_THREADS + " threads but got " + number);
+        }
+        return (int) threads;
+    }
+
+    private static long parsePositive(String number) {
+        long value = Long.parseLong(number);
+        if (value <= 0) {
+            throw new IllegalArgumentException("Expected a positive number but got " + number);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,435 @@
+package tictactoe;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+// perfect play for any board small enough to solve completely, e.g. 4x4 with 3 or 4 in a row. The game is solved
+// backwards, from full boards to the empty one, one layer of positions with the same number of stones at a time.
+// Within a layer a position is numbered by a perfect ranking: the rank of its occupied cells among all sets of that
+// many cells, times the number of ways to split them, plus the rank of the X stones among the occupied cells.
+// So every layer is a dense byte[] of win/draw/loss for the side to move and the number of moves to the end.
+public class RetrogradeTable {
+    public static final String DIRECTORY_PROPERTY = "tictactoe.tables";
+    public static final long MAX_POSITIONS = 1L << 30;
+    private static final int MAGIC = 0x54545231; // "TTR1"
+    private static final int MAX_CELLS = 36;
+
+    // entry layout: result in the top bits, moves to the end in the low 5 bits; 0 marks a position not solved
+    private static final int LOSS = 1;
+    private static final int DRAW = 2;
+    private static final int WIN = 3;
+    private static final int RESULT_SHIFT = 5;
+    private static final int DISTANCE_MASK = (1 << RESULT_SHIFT) - 1;
+    private static final int CHUNK = 1 << 14;
+
+    private static final long[][] BINOMIALS = buildBinomials();
+    private static final Map<Integer, Optional<RetrogradeTable>> LOADED = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int winLength;
+    private final int cellCount;
+    private final long[] windowMasks;
+    private final byte[][] layers;
+
+    private RetrogradeTable(int size, int winLength, byte[][] layers) {
+        this.size = size;
+        this.winLength = winLength;
+        this.cellCount = size * size;
+        this.windowMasks = buildWindowMasks(new Board(size, winLength));
+        this.layers = layers;
+    }
+
+    private static long[][] buildBinomials() {
+        long[][] binomials = new long[MAX_CELLS + 1][MAX_CELLS + 1];
+        for (int n = 0; n <= MAX_CELLS; n++) {
+            binomials[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                binomials[n][k] = binomials[n - 1][k - 1] + binomials[n - 1][k];
+            }
+        }
+        return binomials;
+    }
+
+    private static long[] buildWindowMasks(Board board) {
+        int[] windowCells = board.getWindowCells();
+        long[] masks = new long[board.getWindowCount()];
+        for (int i = 0; i < windowCells.length; i++) {
+            masks[i / board.getWinLength()] |= 1L << windowCells[i];
+        }
+        return masks;
+    }
+
+    // positions with the given number of stones, X having moved first
+    public static long countPositions(int cellCount, int stones) {
+        return BINOMIALS[cellCount][stones] * BINOMIALS[stones][xStones(stones)];
+    }
+
+    public static long countPositions(int size) {
+        int cellCount = size * size;
+        if (cellCount > MAX_CELLS) {
+            return Long.MAX_VALUE;
+        }
+        long positions = 0;
+        for (int stones = 0; stones <= cellCount; stones++) {
+            positions += countPositions(cellCount, stones);
+        }
+        return positions;
+    }
+
+    public static boolean canSolve(int size) {
+        return countPositions(size) <= MAX_POSITIONS;
+    }
+
+    private static int xStones(int stones) {
+        return (stones + 1) / 2;
+    }
+
+    public static Path getFile(int size, int winLength) {
+        return Paths.get(System.getProperty(DIRECTORY_PROPERTY, "."), "tictactoe-" + size + "x" + size + "-k" + winLength + ".rt");
+    }
+
+    // the table of the board's variant if its file has been written, looked for once per variant
+    public static RetrogradeTable find(Board board) {
+        if (!canSolve(board.getSize())) {
+            return null;
+        }
+        return LOADED.computeIfAbsent(board.getSize() * 100 + board.getWinLength(), key -> {
+            Path file = getFile(board.getSize(), board.getWinLength());
+            return Files.isReadable(file) ? Optional.of(load(file)) : Optional.empty();
+        }).orElse(null);
+    }
+
+    public static RetrogradeTable solve(int size, int winLength, int threads) {
+        if (!canSolve(size)) {
+            throw new IllegalArgumentException(size + "x" + size + " has too many positions to solve");
+        }
+
+        int cellCount = size * size;
+        byte[][] layers = new byte[cellCount + 1][];
+        for (int stones = 0; stones <= cellCount; stones++) {
+            layers[stones] = new byte[(int) countPositions(cellCount, stones)];
+        }
+        RetrogradeTable table = new RetrogradeTable(size, winLength, layers);
+
+        for (int stones = cellCount; stones >= 0; stones--) {
+            table.solveLayer(stones, threads);
+        }
+        return table;
+    }
+
+    // a layer only looks at the one above it, so its chunks are solved in parallel
+    private void solveLayer(int stones, int threads) {
+        int positions = layers[stones].length;
+        if (threads <= 1 || positions <= CHUNK) {
+            solveRange(stones, 0, positions);
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < positions; from += CHUNK) {
+            int start = from;
+            int end = Math.min(from + CHUNK, positions);
+            tasks.add(() -> {
+                solveRange(stones, start, end);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : MinimaxSearch.getPool(threads).invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void solveRange(int stones, int from, int to) {
+        byte[] layer = layers[stones];
+        long splits = BINOMIALS[stones][xStones(stones)];
+
+        for (int index = from; index < to; index++) {
+            long occupied = unrankSubset(index / splits, stones);
+            long x = expand(unrankSubset(index % splits, xStones(stones)), occupied);
+            layer[index] = solvePosition(occupied, x, stones);
+        }
+    }
+
+    private byte solvePosition(long occupied, long x, int stones) {
+        long o = occupied & ~x;
+        boolean xToMove = (stones & 1) == 0;
+        long mover = xToMove ? x : o;
+        long opponent = xToMove ? o : x;
+
+        // a line of the side to move can't arise in play; it's marked as won so it never looks like a loss
+        if (hasLine(opponent)) {
+            return encode(LOSS, 0);
+        } else if (hasLine(mover)) {
+            return encode(WIN, 0);
+        } else if (stones == cellCount) {
+            return encode(DRAW, 0);
+        }
+
+        int best = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if ((occupied & 1L << cell) == 0) {
+                int child = childEntry(occupied, x, stones, cell, xToMove);
+                best = best == 0 || isBetter(child, best) ? child : best;
+            }
+        }
+        return encode(4 - (best >>> RESULT_SHIFT), (best & DISTANCE_MASK) + 1);
+    }
+
+    private int childEntry(long occupied, long x, int stones, int cell, boolean xToMove) {
+        long childOccupied = occupied | 1L << cell;
+        long childX = xToMove ? x | 1L << cell : x;
+        return layers[stones + 1][indexOf(childOccupied, childX, stones + 1)] & 0xFF;
+    }
+
+    // children are seen from the opponent: the best one is the opponent's quickest loss,
+    // else a draw, else the opponent's slowest win
+    private static boolean isBetter(int child, int best) {
+        int childResult = child >>> RESULT_SHIFT;
+        int bestResult = best >>> RESULT_SHIFT;
+        if (childResult != bestResult) {
+            return childResult < bestResult;
+        }
+        int childDistance = child & DISTANCE_MASK;
+        int bestDistance = best & DISTANCE_MASK;
+        return childResult == LOSS ? childDistance < bestDistance : childDistance > bestDistance;
+    }
+
+    private boolean hasLine(long stones) {
+        for (long window : windowMasks) {
+            if ((stones & window) == window) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte encode(int result, int distance) {
+        return (byte) (result << RESULT_SHIFT | distance);
+    }
+
+    private static int indexOf(long occupied, long x, int stones) {
+        return (int) (rankSubset(occupied) * BINOMIALS[stones][xStones(stones)] + rankSubset(compress(x, occupied)));
+    }
+
+    // colex rank of a set of cells among all sets of the same size
+    static long rankSubset(long set) {
+        long rank = 0;
+        int j = 0;
+        for (long rest = set; rest != 0; rest &= rest - 1) {
+            rank += BINOMIALS[Long.numberOfTrailingZeros(rest)][++j];
+        }
+        return rank;
+    }
+
+    static long unrankSubset(long rank, int elements) {
+        long set = 0;
+        for (int j = elements; j > 0; j--) {
+            int position = j - 1;
+            while (BINOMIALS[position + 1][j] <= rank) {
+                position++;
+            }
+            rank -= BINOMIALS[position][j];
+            set |= 1L << position;
+        }
+        return set;
+    }
+
+    // the bits of 'set' renumbered by their order among the bits of 'within', and back
+    static long compress(long set, long within) {
+        long compressed = 0;
+        int k = 0;
+        for (long rest = within; rest != 0; rest &= rest - 1, k++) {
+            if ((set & Long.lowestOneBit(rest)) != 0) {
+                compressed |= 1L << k;
+            }
+        }
+        return compressed;
+    }
+
+    static long expand(long compressed, long within) {
+        long set = 0;
+        int k = 0;
+        for (long rest = within; rest != 0; rest &= rest - 1, k++) {
+            if ((compressed & 1L << k) != 0) {
+                set |= Long.lowestOneBit(rest);
+            }
+        }
+        return set;
+    }
+
+    public boolean supports(Board board) {
+        return board.getSize() == size && board.getWinLength() == winLength;
+    }
+
+    private int entryOf(Board board) {
+        long[] words = board.getStones();
+        long x = words[0];
+        long occupied = x | words[1];
+        int stones = board.countStones();
+        return layers[stones][indexOf(occupied, x, stones)] & 0xFF;
+    }
+
+    // moves to the end of the game with best play by both sides
+    public int getDistance(Board board) {
+        return entryOf(board) & DISTANCE_MASK;
+    }
+
+    // 1 when the side to move wins, 0 for a draw, -1 when it loses
+    public int getResult(Board board) {
+        return (entryOf(board) >>> RESULT_SHIFT) - DRAW;
+    }
+
+    // the quickest win, else a draw, else the slowest loss for the side to move; ties go to the lowest cell
+    // as in MinimaxSearch, and NO_MOVE when the game is over
+    public int getBestMove(Board board) {
+        if (board.isGameOver()) {
+            return TranspositionTable.NO_MOVE;
+        }
+
+        long[] words = board.getStones();
+        long x = words[0];
+        long occupied = x | words[1];
+        int stones = board.countStones();
+        boolean xToMove = (stones & 1) == 0;
+
+        int bestCell = TranspositionTable.NO_MOVE;
+        int best = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if ((occupied & 1L << cell) == 0) {
+                int child = childEntry(occupied, x, stones, cell, xToMove);
+                if (best == 0 || isBetter(child, best)) {
+                    best = child;
+                    bestCell = cell;
+                }
+            }
+        }
+        return bestCell;
+    }
+
+    public static RetrogradeTable load(Path file) {
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+            if (input.readInt() != MAGIC) {
+                throw new IllegalStateException("Not a retrograde table file: " + file);
+            }
+            int size = input.readInt();
+            int winLength = input.readInt();
+            int cellCount = size * size;
+
+            byte[][] layers = new byte[cellCount + 1][];
+            for (int stones = 0; stones <= cellCount; stones++) {
+                int length = input.readInt();
+                if (length != countPositions(cellCount, stones)) {
+                    throw new IllegalStateException("Layer " + stones + " of " + file + " has " + length + " positions");
+                }
+                layers[stones] = new byte[length];
+                input.readFully(layers[stones]);
+            }
+            return new RetrogradeTable(size, winLength, layers);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(size);
+            output.writeInt(winLength);
+            for (byte[] layer : layers) {
+                output.writeInt(layer.length);
+                output.write(layer);
+            }
+        }
+    }
+
+    // compares random positions that a full-depth live search can still answer and returns the disagreements
+    public int verify(int samples, long seed) {
+        Random random = new Random(seed);
+        int mismatches = 0;
+
+        for (int sample = 0; sample < samples; sample++) {
+            Board board = new Board(size, winLength);
+            char symbol = 'X';
+            int stones = Math.max(0, cellCount - 10) + random.nextInt(Math.min(cellCount, 10));
+
+            while (board.countStones() < stones && !board.isGameOver()) {
+                board.place(EasyStrategy.chooseRandomCell(board, random), symbol);
+                symbol = symbol == 'X' ? 'O' : 'X';
+            }
+            if (board.isGameOver()) {
+                continue;
+            }
+
+            MinimaxSearch search = new MinimaxSearch(board);
+            if (search.getBestMoveByMinimax(board, symbol, board.countEmptyCells()) != getBestMove(board)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    // "java tictactoe.RetrogradeTable 4 3 [--threads=n] [--verify]" writes tictactoe-4x4-k3.rt to the tables directory
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: RetrogradeTable <size> [winLength] [--threads=n] [--verify]");
+            return;
+        }
+
+        int size = Integer.parseInt(args[0]);
+        int winLength = Board.getDefaultWinLength(size);
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean verify = false;
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--threads=")) {
+                threads = Integer.parseInt(args[i].substring("--threads=".length()));
+            } else if (args[i].equals("--verify")) {
+                verify = true;
+            } else {
+                winLength = Integer.parseInt(args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        RetrogradeTable table = solve(size, winLength, threads);
+        Board empty = new Board(size, winLength);
+        System.out.printf("Solved %d positions in %.1f s: %s in %d moves%n", countPositions(size),
+                (System.nanoTime() - start) / 1e9, new String[]{"X loses", "draw", "X wins"}[table.getResult(empty) + 1],
+                table.getDistance(empty));
+
+        if (verify) {
+            int mismatches = table.verify(1000, 1);
+            System.out.println("Positions differing from the live search: " + mismatches);
+            if (mismatches > 0) {
+                System.exit(1);
+            }
+        }
+
+        Path file = getFile(size, winLength);
+        table.save(file);
+        System.out.println("Written " + file);
+    }
+}
@@ -0,0 +1,13 @@
+package tictactoe;
+
+// makes the engine behind a player type; engines of other jars are found with ServiceLoader when their jar lists
+// the provider class in META-INF/services/tictactoe.StrategyProvider, and are then started as e.g. "start mine hard"
+public interface StrategyProvider {
+
+    // the player type as typed in the start command, in lower case
+    String getName();
+
+    // called once per distinct player type text; the engine is then shared by every game of the process,
+    // so it must be safe to call from several threads at once
+    PlayerStrategy create(PlayerType playerType);
+}
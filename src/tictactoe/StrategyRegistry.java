@@ -0,0 +1,72 @@
+package tictactoe;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+// the built-in engines plus every StrategyProvider on the class path, and one shared engine per player type
+public class StrategyRegistry {
+    // options make player types unbounded ("hard:1ms", "hard:2ms", ...), so only the engines of this many
+    // recently used types are kept; a type used again after its engine was evicted gets a new one
+    private static final int MAX_ENGINES = 256;
+
+    private static final Map<String, StrategyProvider> PROVIDERS = loadProviders();
+    private static final Map<String, PlayerStrategy> ENGINES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlayerStrategy> eldest) {
+            return size() > MAX_ENGINES;
+        }
+    };
+
+    private StrategyRegistry() {
+    }
+
+    private static Map<String, StrategyProvider> loadProviders() {
+        Map<String, StrategyProvider> providers = new LinkedHashMap<>();
+        List<StrategyProvider> builtIn = List.of(new EasyStrategy.Provider(), new MediumStrategy.Provider(),
+                new HardStrategy.Provider(), new MctsStrategy.Provider());
+
+        for (StrategyProvider provider : builtIn) {
+            providers.put(provider.getName(), provider);
+        }
+        for (StrategyProvider provider : ServiceLoader.load(StrategyProvider.class)) {
+            String name = provider.getName().toLowerCase();
+            if (providers.containsKey(name) || isReserved(name)) {
+                throw new IllegalStateException("Player type \"" + name + "\" of " + provider.getClass().getName() +
+                        " is already taken");
+            }
+            providers.put(name, provider);
+        }
+        return providers;
+    }
+
+    private static boolean isReserved(String name) {
+        for (Game.Parameter parameter : Game.Parameter.values()) {
+            if (parameter.name().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean hasProvider(String name) {
+        return PROVIDERS.containsKey(name.toLowerCase());
+    }
+
+    public static Iterable<String> getNames() {
+        return PROVIDERS.keySet();
+    }
+
+    public static PlayerStrategy getEngine(PlayerType playerType) {
+        StrategyProvider provider = PROVIDERS.get(playerType.getName());
+        if (provider == null) {
+            throw new IllegalArgumentException("No engine for player type " + playerType);
+        }
+
+        // players are resolved once per game, not per move, so one lock around the LRU map is cheap enough
+        synchronized (ENGINES) {
+            return ENGINES.computeIfAbsent(playerType.toString().toLowerCase(), key -> provider.create(playerType));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// perfect play for the classic 3x3 game: one byte per position, indexed by the position read as a base-3 number
+public class Tablebase {
+    public static final String DEFAULT_FILE = "tictactoe-3x3.tb";
+    public static final String FILE_PROPERTY = "tictactoe.tablebase";
+    private static final int MAGIC = 0x54544231; // "TTB1"
+    private static final int CELLS = 9;
+    private static final int POSITIONS = 19683; // 3^9
+
+    // entry layout: high nibble best cell + 1 (0 when the game is over), low nibble score + SCORE_OFFSET
+    private static final int SCORE_OFFSET = 8;
+    private static final byte UNREACHABLE = 0;
+
+    private static volatile Tablebase instance;
+
+    private final byte[] entries;
+
+    private Tablebase(byte[] entries) {
+        this.entries = entries;
+    }
+
+    public static boolean supports(Board board) {
+        return board.getSize() == 3 && board.getWinLength() == 3;
+    }
+
+    // loads the table file if there is one, otherwise solves the game in memory, which takes a few milliseconds
+    public static Tablebase getInstance() {
+        if (instance == null) {
+            synchronized (Tablebase.class) {
+                if (instance == null) {
+                    Path file = Paths.get(System.getProperty(FILE_PROPERTY, DEFAULT_FILE));
+                    instance = Files.isReadable(file) ? load(file) : build();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public static Tablebase build() {
+        byte[] entries = new byte[POSITIONS];
+        solve(new Board(), 'X', 0, entries);
+        return new Tablebase(entries);
+    }
+
+    public static Tablebase load(Path file) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() != Integer.BYTES + POSITIONS || buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a tablebase file: " + file);
+            }
+            byte[] entries = new byte[POSITIONS];
+            buffer.get(entries);
+            return new Tablebase(entries);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + POSITIONS);
+        buffer.putInt(MAGIC).put(entries);
+        Files.write(file, buffer.array());
+    }
+
+    private static int solve(Board board, char symbol, int index, byte[] entries) {
+        if (entries[index] != UNREACHABLE) {
+            return getScore(entries[index]);
+        }
+
+        if (board.isGameOver()) {
+            int score = board.isWin('O') ? 10 - board.countStones() :
+                    board.isWin('X') ? board.countStones() - 10 : 0;
+            entries[index] = encode(TranspositionTable.NO_MOVE, score);
+            return score;
+        }
+
+        boolean isMaximizing = symbol == 'O';
+        int bestScore = 0;
+        int bestCell = TranspositionTable.NO_MOVE;
+
+        // cells are tried in index order and only a strictly better score replaces the best,
+        // so ties go to the lowest cell exactly as in MinimaxSearch
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (!board.isEmpty(cell)) {
+                continue;
+            }
+
+            board.place(cell, symbol);
+            int score = solve(board, isMaximizing ? 'X' : 'O', index + digitOf(symbol) * pow3(cell), entries);
+            board.clear(cell);
+
+            if (bestCell < 0 || (isMaximizing ? score > bestScore : score < bestScore)) {
+                bestScore = score;
+                bestCell = cell;
+            }
+        }
+
+        entries[index] = encode(bestCell, bestScore);
+        return bestScore;
+    }
+
+    private static byte encode(int bestCell, int score) {
+        return (byte) ((bestCell + 1) << 4 | (score + SCORE_OFFSET));
+    }
+
+    private static int getScore(byte entry) {
+        return (entry & 0x0F) - SCORE_OFFSET;
+    }
+
+    private static int digitOf(char symbol) {
+        return symbol == 'X' ? 1 : symbol == 'O' ? 2 : 0;
+    }
+
+    private static int pow3(int exponent) {
+        int power = 1;
+        for (int i = 0; i < exponent; i++) {
+            power *= 3;
+        }
+        return power;
+    }
+
+    public static int indexOf(Board board) {
+        int index = 0;
+        for (int cell = CELLS - 1; cell >= 0; cell--) {
+            index = index * 3 + digitOf(board.getSymbol(cell));
+        }
+        return index;
+    }
+
+    public boolean contains(Board board) {
+        return entries[indexOf(board)] != UNREACHABLE;
+    }
+
+    // best cell for the side to move, or NO_MOVE when the game is over or the position can't arise in play
+    public int getBestMove(Board board) {
+        byte entry = entries[indexOf(board)];
+        return entry == UNREACHABLE ? TranspositionTable.NO_MOVE : ((entry & 0xF0) >>> 4) - 1;
+    }
+
+    // 10 - stones when O wins with best play, stones - 10 when X wins, 0 for a draw
+    public int getScore(Board board) {
+        return getScore(entries[indexOf(board)]);
+    }
+
+    // compares every reachable position with a live search and returns the number of disagreements
+    public int verify() {
+        return verify(new Board(), 'X', new boolean[POSITIONS]);
+    }
+
+    private int verify(Board board, char symbol, boolean[] visited) {
+        int index = indexOf(board);
+        if (visited[index] || board.isGameOver()) {
+            return 0;
+        }
+        visited[index] = true;
+
+        MinimaxSearch search = new MinimaxSearch(board);
+        int mismatches = search.getBestMoveByMinimax(board, symbol, board.countEmptyCells()) == getBestMove(board) ? 0 : 1;
+
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board.isEmpty(cell)) {
+                board.place(cell, symbol);
+                mismatches += verify(board, symbol == 'X' ? 'O' : 'X', visited);
+                board.clear(cell);
+            }
+        }
+        return mismatches;
+    }
+
+    // writes the table file, e.g. "java tictactoe.Tablebase tictactoe-3x3.tb"; "--verify" cross-checks it first
+    public static void main(String[] args) throws IOException {
+        boolean verify = args.length > 0 && args[0].equals("--verify");
+        Path file = Paths.get(args.length > (verify ? 1 : 0) ? args[verify ? 1 : 0] : DEFAULT_FILE);
+
+        Tablebase tablebase = build();
+
+        if (verify) {
+            int mismatches = tablebase.verify();
+            System.out.println("Positions differing from the live search: " + mismatches);
+            if (mismatches > 0) {
+                System.exit(1);
+            }
+        }
+
+        tablebase.save(file);
+        System.out.println("Written " + file);
+    }
+}
@@ -0,0 +1,112 @@
+package tictactoe;
+
+// finds in one pass over the board's windows the immediate wins and required blocks of a player, and the cells
+// that would give either player two threats at once (a fork). Works on any board size and win length and
+// allocates nothing once its arrays fit the board; one scanner per thread, it keeps the result of the last scan.
+public class ThreatScanner {
+    private static final int NONE = -1;
+
+    // per cell: the generation in which the cell was last noted, and the completion cell of its first threat
+    private int[] ownSeen = new int[0];
+    private int[] ownCompletion = new int[0];
+    private int[] enemySeen = new int[0];
+    private int[] enemyCompletion = new int[0];
+    private int generation;
+
+    private int win;
+    private int block;
+    private int fork;
+    private int enemyFork;
+
+    public void scan(Board board, char symbol) {
+        char enemySymbol = symbol == 'X' ? 'O' : 'X';
+        int winLength = board.getWinLength();
+        int[] windowCells = board.getWindowCells();
+        prepare(board.getCellCount());
+
+        win = NONE;
+        block = NONE;
+        fork = NONE;
+        enemyFork = NONE;
+
+        for (int window = 0; window < board.getWindowCount(); window++) {
+            int own = board.countWindowStones(symbol, window);
+            int enemy = board.countWindowStones(enemySymbol, window);
+            int first = window * winLength;
+
+            if (enemy == 0 && own == winLength - 1) {
+                win = lowest(win, emptyCell(board, windowCells, first, winLength, NONE));
+            } else if (own == 0 && enemy == winLength - 1) {
+                block = lowest(block, emptyCell(board, windowCells, first, winLength, NONE));
+            } else if (enemy == 0 && own == winLength - 2) {
+                int a = emptyCell(board, windowCells, first, winLength, NONE);
+                int b = emptyCell(board, windowCells, first, winLength, a);
+                fork = lowest(fork, noteThreat(ownSeen, ownCompletion, a, b));
+                fork = lowest(fork, noteThreat(ownSeen, ownCompletion, b, a));
+            } else if (own == 0 && enemy == winLength - 2) {
+                int a = emptyCell(board, windowCells, first, winLength, NONE);
+                int b = emptyCell(board, windowCells, first, winLength, a);
+                enemyFork = lowest(enemyFork, noteThreat(enemySeen, enemyCompletion, a, b));
+                enemyFork = lowest(enemyFork, noteThreat(enemySeen, enemyCompletion, b, a));
+            }
+        }
+    }
+
+    private void prepare(int cellCount) {
+        if (ownSeen.length < cellCount) {
+            ownSeen = new int[cellCount];
+            ownCompletion = new int[cellCount];
+            enemySeen = new int[cellCount];
+            enemyCompletion = new int[cellCount];
+            generation = 0;
+        }
+        generation++;
+    }
+
+    // playing 'cell' would leave the window one stone short at 'completion'; returns the cell if that makes
+    // two threats with different completion cells, so the opponent can't block both
+    private int noteThreat(int[] seen, int[] completion, int cell, int completesAt) {
+        if (seen[cell] != generation) {
+            seen[cell] = generation;
+            completion[cell] = completesAt;
+            return NONE;
+        }
+        return completion[cell] != completesAt ? cell : NONE;
+    }
+
+    private static int emptyCell(Board board, int[] windowCells, int first, int winLength, int skipped) {
+        for (int i = first; i < first + winLength; i++) {
+            int cell = windowCells[i];
+            if (cell != skipped && board.isEmpty(cell)) {
+                return cell;
+            }
+        }
+        return NONE;
+    }
+
+    private static int lowest(int current, int candidate) {
+        return current == NONE || (candidate != NONE && candidate < current) ? candidate : current;
+    }
+
+    // -1 for none of each kind
+    public int getWin() {
+        return win;
+    }
+
+    public int getBlock() {
+        return block;
+    }
+
+    public int getFork() {
+        return fork;
+    }
+
+    public int getEnemyFork() {
+        return enemyFork;
+    }
+
+    // winning beats blocking, blocking beats forking, and taking the enemy's fork cell comes last
+    public int getBestMove() {
+        return win != NONE ? win : block != NONE ? block : fork != NONE ? fork : enemyFork;
+    }
+}
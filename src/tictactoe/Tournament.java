@@ -0,0 +1,431 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+// round-robin between engines: every pair plays the given number of games with each engine as X, on all cores,
+// and the report gives per engine its score and Elo with 95% confidence intervals and its move time percentiles, e.g.
+// "java tictactoe.Tournament easy medium hard mcts --games=1000 --format=json --out=strength.json"
+public class Tournament {
+    public static final String[] DEFAULT_ENGINES = {"easy", "medium", "hard", "mcts"};
+    private static final String GAMES_OPTION = "--games=";
+    private static final String THREADS_OPTION = "--threads=";
+    private static final String SEED_OPTION = "--seed=";
+    private static final String SIZE_OPTION = "--size=";
+    private static final String WIN_OPTION = "--win=";
+    private static final String FORMAT_OPTION = "--format=";
+    private static final String OUT_OPTION = "--out=";
+    private static final List<String> FORMATS = List.of("text", "csv", "json");
+
+    private static final double Z_95 = 1.959964;
+    private static final int ELO_ITERATIONS = 200;
+    // a virtual draw between every pair keeps the ratings finite when an engine wins or loses every game
+    private static final double PRIOR_DRAWS = 1;
+
+    private final PlayerType[] types;
+    private final int size;
+    private final int winLength;
+    private final int threads;
+    private final long seed;
+
+    public Tournament(PlayerType[] types, int size, int winLength, int threads, long seed) {
+        if (types.length < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two engines");
+        }
+        this.types = types;
+        this.size = size;
+        this.winLength = winLength;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    // game n is played with seed + n whichever worker plays it, so the results don't depend on the number of threads
+    public Result run(long gamesPerColor) {
+        int engines = types.length;
+        TimedStrategy[] strategies = new TimedStrategy[engines];
+        for (int i = 0; i < engines; i++) {
+            strategies[i] = new TimedStrategy(PlayerStrategy.forType(types[i]));
+        }
+
+        int[][] pairings = new int[engines * (engines - 1)][];
+        int pairing = 0;
+        for (int x = 0; x < engines; x++) {
+            for (int o = 0; o < engines; o++) {
+                if (x != o) {
+                    pairings[pairing++] = new int[]{x, o};
+                }
+            }
+        }
+
+        long totalGames = pairings.length * gamesPerColor;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        try {
+            List<Future<long[][]>> results = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                int firstGame = worker;
+                results.add(executor.submit(() -> playEvery(firstGame, totalGames, gamesPerColor, pairings, strategies)));
+            }
+
+            // per pairing: X wins, draws, O wins
+            long[][] outcomes = new long[pairings.length][3];
+            for (Future<long[][]> result : results) {
+                long[][] part = result.get();
+                for (int i = 0; i < pairings.length; i++) {
+                    for (int k = 0; k < 3; k++) {
+                        outcomes[i][k] += part[i][k];
+                    }
+                }
+            }
+            return new Result(this, pairings, outcomes, strategies, System.nanoTime() - start);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long[][] playEvery(long firstGame, long totalGames, long gamesPerColor, int[][] pairings,
+                               TimedStrategy[] strategies) {
+        long[][] outcomes = new long[pairings.length][3];
+        Board board = new Board(size, winLength);
+
+        for (long game = firstGame; game < totalGames; game += threads) {
+            int pairing = (int) (game / gamesPerColor);
+            GameResult result = GameRunner.play(strategies[pairings[pairing][0]], strategies[pairings[pairing][1]],
+                    seed + game, board);
+            outcomes[pairing][result.getWinner() == 'X' ? 0 : result.isDraw() ? 1 : 2]++;
+        }
+        return outcomes;
+    }
+
+    // times every decision of the engine into its own histogram, so "hard" and "hard:50ms" are told apart
+    private static class TimedStrategy implements PlayerStrategy {
+        private final PlayerStrategy engine;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private TimedStrategy(PlayerStrategy engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public int chooseMove(Board board, char symbol, RandomGenerator random) {
+            long start = System.nanoTime();
+            int cell = engine.chooseMove(board, symbol, random);
+            latency.record(System.nanoTime() - start);
+            return cell;
+        }
+
+        @Override
+        public Game.Parameter getDifficulty() {
+            return engine.getDifficulty();
+        }
+
+        @Override
+        public long getLastNodeCount() {
+            return engine.getLastNodeCount();
+        }
+
+        @Override
+        public int getLastDepth() {
+            return engine.getLastDepth();
+        }
+
+        @Override
+        public boolean isLastMoveCached() {
+            return engine.isLastMoveCached();
+        }
+    }
+
+    public static class Result {
+        private final Tournament tournament;
+        private final int[][] pairings;
+        private final long[][] outcomes;
+        private final TimedStrategy[] strategies;
+        private final long elapsedNanos;
+
+        // per engine: wins, draws, losses over all its games
+        private final long[][] records;
+        private final double[] elo;
+
+        private Result(Tournament tournament, int[][] pairings, long[][] outcomes, TimedStrategy[] strategies,
+                       long elapsedNanos) {
+            this.tournament = tournament;
+            this.pairings = pairings;
+            this.outcomes = outcomes;
+            this.strategies = strategies;
+            this.elapsedNanos = elapsedNanos;
+            this.records = new long[strategies.length][3];
+
+            for (int i = 0; i < pairings.length; i++) {
+                int x = pairings[i][0];
+                int o = pairings[i][1];
+                records[x][0] += outcomes[i][0];
+                records[x][1] += outcomes[i][1];
+                records[x][2] += outcomes[i][2];
+                records[o][0] += outcomes[i][2];
+                records[o][1] += outcomes[i][1];
+                records[o][2] += outcomes[i][0];
+            }
+            this.elo = fitElo();
+        }
+
+        // maximum likelihood ratings of the Bradley-Terry model with draws as half points, centred on 0;
+        // a Newton step per engine and round converges in a few dozen rounds
+        private double[] fitElo() {
+            int engines = strategies.length;
+            double[][] score = new double[engines][engines];
+            double[][] games = new double[engines][engines];
+
+            for (int i = 0; i < pairings.length; i++) {
+                int x = pairings[i][0];
+                int o = pairings[i][1];
+                double played = outcomes[i][0] + outcomes[i][1] + outcomes[i][2];
+                score[x][o] += outcomes[i][0] + outcomes[i][1] / 2.0;
+                score[o][x] += outcomes[i][2] + outcomes[i][1] / 2.0;
+                games[x][o] += played;
+                games[o][x] += played;
+            }
+
+            double[] ratings = new double[engines];
+            for (int round = 0; round < ELO_ITERATIONS; round++) {
+                for (int i = 0; i < engines; i++) {
+                    double actual = 0;
+                    double expected = 0;
+                    double slope = 0;
+
+                    for (int j = 0; j < engines; j++) {
+                        if (i != j) {
+                            double n = games[i][j] + PRIOR_DRAWS;
+                            double p = expectedScore(ratings[i] - ratings[j]);
+                            actual += score[i][j] + PRIOR_DRAWS / 2;
+                            expected += n * p;
+                            slope += n * p * (1 - p) * Math.log(10) / 400;
+                        }
+                    }
+                    ratings[i] += (actual - expected) / slope;
+                }
+
+                double mean = 0;
+                for (double rating : ratings) {
+                    mean += rating / engines;
+                }
+                for (int i = 0; i < engines; i++) {
+                    ratings[i] -= mean;
+                }
+            }
+            return ratings;
+        }
+
+        private static double expectedScore(double eloDifference) {
+            return 1 / (1 + Math.pow(10, -eloDifference / 400));
+        }
+
+        private static double eloOf(double score) {
+            double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+            return -400 * Math.log10(1 / clamped - 1);
+        }
+
+        private long gamesOf(int engine) {
+            return records[engine][0] + records[engine][1] + records[engine][2];
+        }
+
+        private double scoreOf(int engine) {
+            long games = gamesOf(engine);
+            return games == 0 ? 0 : (records[engine][0] + records[engine][1] / 2.0) / games;
+        }
+
+        // half width of the 95% interval of the score, from the spread of the single game results
+        private double scoreMarginOf(int engine) {
+            long games = gamesOf(engine);
+            if (games == 0) {
+                return 0;
+            }
+            double score = scoreOf(engine);
+            double variance = (records[engine][0] * Math.pow(1 - score, 2) +
+                    records[engine][1] * Math.pow(0.5 - score, 2) +
+                    records[engine][2] * Math.pow(score, 2)) / games;
+            return Z_95 * Math.sqrt(variance / games);
+        }
+
+        // the score interval turned into Elo around the fitted rating
+        private double[] eloIntervalOf(int engine) {
+            double score = scoreOf(engine);
+            double margin = scoreMarginOf(engine);
+            double centre = eloOf(score);
+            return new double[]{elo[engine] + eloOf(Math.max(score - margin, 0)) - centre,
+                    elo[engine] + eloOf(Math.min(score + margin, 1)) - centre};
+        }
+
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder();
+            csv.append("engine,games,wins,draws,losses,score,score_low,score_high,elo,elo_low,elo_high," +
+                    "moves,mean_us,p50_us,p90_us,p99_us,max_us").append(System.lineSeparator());
+
+            for (int i = 0; i < strategies.length; i++) {
+                LatencyHistogram latency = strategies[i].latency;
+                double[] eloInterval = eloIntervalOf(i);
+                csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.4f,%.4f,%.4f,%.1f,%.1f,%.1f,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                        csvField(tournament.types[i].toString()), gamesOf(i), records[i][0], records[i][1], records[i][2],
+                        scoreOf(i), Math.max(scoreOf(i) - scoreMarginOf(i), 0), Math.min(scoreOf(i) + scoreMarginOf(i), 1),
+                        elo[i], eloInterval[0], eloInterval[1], latency.getCount(), latency.getMean() / 1e3,
+                        latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                        latency.getValueAtPercentile(99) / 1e3, latency.getMax() / 1e3));
+            }
+
+            csv.append(System.lineSeparator()).append("x,o,games,x_wins,draws,o_wins").append(System.lineSeparator());
+            for (int i = 0; i < pairings.length; i++) {
+                csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d%n",
+                        csvField(tournament.types[pairings[i][0]].toString()),
+                        csvField(tournament.types[pairings[i][1]].toString()),
+                        outcomes[i][0] + outcomes[i][1] + outcomes[i][2], outcomes[i][0], outcomes[i][1], outcomes[i][2]));
+            }
+            return csv.toString();
+        }
+
+        public String toJson() {
+            StringBuilder json = new StringBuilder();
+            json.append(String.format(Locale.ROOT, "{\"size\":%d,\"win\":%d,\"seed\":%d,\"threads\":%d,\"seconds\":%.3f,",
+                    tournament.size, tournament.winLength, tournament.seed, tournament.threads, elapsedNanos / 1e9));
+
+            json.append("\"engines\":[");
+            for (int i = 0; i < strategies.length; i++) {
+                LatencyHistogram latency = strategies[i].latency;
+                double[] eloInterval = eloIntervalOf(i);
+                json.append(i > 0 ? "," : "").append(String.format(Locale.ROOT,
+                        "{\"engine\":%s,\"games\":%d,\"wins\":%d,\"draws\":%d,\"losses\":%d," +
+                                "\"score\":%.4f,\"scoreLow\":%.4f,\"scoreHigh\":%.4f,\"elo\":%.1f,\"eloLow\":%.1f,\"eloHigh\":%.1f," +
+                                "\"moves\":%d,\"meanMicros\":%.1f,\"p50Micros\":%.1f,\"p90Micros\":%.1f,\"p99Micros\":%.1f,\"maxMicros\":%.1f}",
+                        jsonString(tournament.types[i].toString()), gamesOf(i), records[i][0], records[i][1], records[i][2],
+                        scoreOf(i), Math.max(scoreOf(i) - scoreMarginOf(i), 0), Math.min(scoreOf(i) + scoreMarginOf(i), 1),
+                        elo[i], eloInterval[0], eloInterval[1], latency.getCount(), latency.getMean() / 1e3,
+                        latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                        latency.getValueAtPercentile(99) / 1e3, latency.getMax() / 1e3));
+            }
+
+            json.append("],\"matches\":[");
+            for (int i = 0; i < pairings.length; i++) {
+                json.append(i > 0 ? "," : "").append(String.format(Locale.ROOT,
+                        "{\"x\":%s,\"o\":%s,\"xWins\":%d,\"draws\":%d,\"oWins\":%d}",
+                        jsonString(tournament.types[pairings[i][0]].toString()),
+                        jsonString(tournament.types[pairings[i][1]].toString()),
+                        outcomes[i][0], outcomes[i][1], outcomes[i][2]));
+            }
+            return json.append("]}").append(System.lineSeparator()).toString();
+        }
+
+        private static String csvField(String text) {
+            return text.contains(",") || text.contains("\"") ? "\"" + text.replace("\"", "\"\"") + "\"" : text;
+        }
+
+        private static String jsonString(String text) {
+            return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder table = new StringBuilder();
+            table.append(String.format("%-14s %7s %7s %17s %7s %15s %10s %10s %10s%n",
+                    "Engine", "Games", "Score", "95% CI", "Elo", "95% CI", "p50 ms", "p99 ms", "max ms"));
+
+            for (int i = 0; i < strategies.length; i++) {
+                LatencyHistogram latency = strategies[i].latency;
+                double[] eloInterval = eloIntervalOf(i);
+                table.append(String.format("%-14s %7d %6.1f%% %7.1f%% - %5.1f%% %7.0f %6.0f - %6.0f %10.3f %10.3f %10.3f%n",
+                        tournament.types[i], gamesOf(i), 100 * scoreOf(i),
+                        100 * Math.max(scoreOf(i) - scoreMarginOf(i), 0), 100 * Math.min(scoreOf(i) + scoreMarginOf(i), 1),
+                        elo[i], eloInterval[0], eloInterval[1], latency.getValueAtPercentile(50) / 1e6,
+                        latency.getValueAtPercentile(99) / 1e6, latency.getMax() / 1e6));
+            }
+            return table.append(String.format("%d games in %.1f s", totalGames(), elapsedNanos / 1e9)).toString();
+        }
+
+        private long totalGames() {
+            long games = 0;
+            for (long[] outcome : outcomes) {
+                games += outcome[0] + outcome[1] + outcome[2];
+            }
+            return games;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> engines = new ArrayList<>();
+        long games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        int size = Board.DEFAULT_SIZE;
+        Integer winLength = null;
+        String format = "text";
+        String outFile = null;
+
+        for (String arg : args) {
+            if (arg.startsWith(GAMES_OPTION)) {
+                games = Long.parseLong(arg.substring(GAMES_OPTION.length()));
+            } else if (arg.startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(arg.substring(THREADS_OPTION.length()));
+            } else if (arg.startsWith(SEED_OPTION)) {
+                seed = Long.parseLong(arg.substring(SEED_OPTION.length()));
+            } else if (arg.startsWith(SIZE_OPTION)) {
+                size = Integer.parseInt(arg.substring(SIZE_OPTION.length()));
+            } else if (arg.startsWith(WIN_OPTION)) {
+                winLength = Integer.parseInt(arg.substring(WIN_OPTION.length()));
+            } else if (arg.startsWith(FORMAT_OPTION)) {
+                format = arg.substring(FORMAT_OPTION.length());
+                // checked before the games are played, not after
+                if (!FORMATS.contains(format)) {
+                    throw new IllegalArgumentException("Unknown format " + format);
+                }
+            } else if (arg.startsWith(OUT_OPTION)) {
+                outFile = arg.substring(OUT_OPTION.length());
+            } else if (arg.startsWith("--")) {
+                System.out.println("Usage: Tournament [engine...] [" + GAMES_OPTION + "n per color] [" + THREADS_OPTION +
+                        "n] [" + SEED_OPTION + "n] [" + SIZE_OPTION + "n] [" + WIN_OPTION + "n] [" + FORMAT_OPTION +
+                        "text|csv|json] [" + OUT_OPTION + "file]");
+                return;
+            } else {
+                engines.add(arg);
+            }
+        }
+        if (engines.isEmpty()) {
+            engines.addAll(List.of(DEFAULT_ENGINES));
+        }
+
+        PlayerType[] types = new PlayerType[engines.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = PlayerType.parse(engines.get(i));
+        }
+
+        Tournament tournament = new Tournament(types, size, winLength == null ? Board.getDefaultWinLength(size) : winLength,
+                threads, seed);
+        Result result = tournament.run(games);
+
+        String report = switch (format) {
+            case "csv" -> result.toCsv();
+            case "json" -> result.toJson();
+            case "text" -> result + System.lineSeparator();
+            default -> throw new IllegalStateException("Unknown format " + format);
+        };
+
+        if (outFile == null) {
+            System.out.print(report);
+        } else {
+            Files.writeString(Paths.get(outFile), report);
+            System.out.println("Written " + outFile);
+        }
+    }
+}
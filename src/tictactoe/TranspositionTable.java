@@ -0,0 +1,70 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+    public static final long MISS = 0;
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+    public static final int NO_MOVE = -1;
+
+    // entry layout: bits 0-31 score, bits 32-33 flag, bits 34-49 best cell + 1, bits 50-57 depth
+    private static final int FLAG_SHIFT = 32;
+    private static final int CELL_SHIFT = 34;
+    private static final int DEPTH_SHIFT = 50;
+
+    // keys are stored xor-ed with their entry, so a slot torn by a concurrent write fails the key check
+    private final long[] keys;
+    private final long[] entries;
+    private final int indexMask;
+
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.keys = new long[size];
+        this.entries = new long[size];
+        this.indexMask = size - 1;
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & indexMask;
+    }
+
+    public long probe(long key) {
+        int index = indexOf(key);
+        long entry = entries[index];
+        return entry != MISS && (keys[index] ^ entry) == key ? entry : MISS;
+    }
+
+    public void store(long key, int score, int flag, int bestCell, int depth) {
+        int index = indexOf(key);
+        long entry = (score & 0xFFFFFFFFL) |
+                (long) flag << FLAG_SHIFT |
+                (long) (bestCell + 1) << CELL_SHIFT |
+                (long) depth << DEPTH_SHIFT;
+
+        keys[index] = key ^ entry;
+        entries[index] = entry;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, MISS);
+    }
+
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+
+    public static int getFlag(long entry) {
+        return (int) (entry >>> FLAG_SHIFT) & 0b11;
+    }
+
+    public static int getBestCell(long entry) {
+        return ((int) (entry >>> CELL_SHIFT) & 0xFFFF) - 1;
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+}
@@ -0,0 +1,93 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class BatchRunnerTest {
+
+    private static String totals(BatchRunner.Statistics statistics) {
+        return statistics.getXWins() + "/" + statistics.getDraws() + "/" + statistics.getOWins() + " in " +
+                statistics.getMoves() + " moves";
+    }
+
+    private static String run(String x, String o, int threads, long seed) {
+        BatchRunner runner = new BatchRunner(PlayerType.parse(x), PlayerType.parse(o), 3, 3, threads, seed);
+        return totals(runner.run(300));
+    }
+
+    @Test
+    void sameSeedGivesSameTotals() {
+        assertEquals(run("easy", "medium", 1, 42), run("easy", "medium", 1, 42));
+        assertEquals(run("easy", "hard", 1, 7), run("easy", "hard", 1, 7));
+        assertEquals(run("easy", "mcts:200", 1, 7), run("easy", "mcts:200", 1, 7));
+    }
+
+    @Test
+    void totalsDontDependOnTheNumberOfThreads() {
+        assertEquals(run("easy", "easy", 1, 42), run("easy", "easy", 3, 42));
+        assertEquals(run("medium", "easy", 1, 42), run("medium", "easy", 2, 42));
+    }
+
+    @Test
+    void sameSeedReplaysTheGameMoveForMove() {
+        PlayerStrategy x = PlayerStrategy.forType(PlayerType.parse("easy"));
+        PlayerStrategy o = PlayerStrategy.forType(PlayerType.parse("mcts:100"));
+
+        for (long seed = 0; seed < 20; seed++) {
+            assertArrayEquals(GameRunner.play(x, o, seed).getCells(), GameRunner.play(x, o, seed).getCells());
+        }
+    }
+
+    @Test
+    void otherSeedsPlayOtherGames() {
+        assertNotEquals(run("easy", "easy", 1, 1), run("easy", "easy", 1, 2));
+    }
+
+    // the summary lines of Main --batch without their timing
+    private static List<String> runBatch(String input) {
+        return runBatch(input, 0L);
+    }
+
+    private static List<String> runBatch(String input, Long seed) {
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        Main.runBatch(new BufferedReader(new StringReader(input)), new PrintStream(summary, true, StandardCharsets.UTF_8), seed);
+        return summary.toString(StandardCharsets.UTF_8).replaceAll(" ms=\\S+", "").lines().toList();
+    }
+
+    @Test
+    void batchModePrintsOneLinePerGameAndSkipsInvalidLines() {
+        List<String> lines = runBatch(String.join("\n", "start hard hard", "hello", "start easy easy",
+                "exit", "start easy easy"));
+
+        assertEquals(2, lines.size());
+        assertEquals("game=1 x=hard o=hard size=3 win=3 seed=0 result=Draw moves=9", lines.get(0));
+        assertEquals(true, lines.get(1).startsWith("game=2 x=easy o=easy size=3 win=3 seed=1 result="));
+    }
+
+    @Test
+    void batchModeStopsAtTheEndOfTheInput() {
+        assertEquals(List.of("game=1 x=hard o=hard size=3 win=3 seed=0 result=Draw moves=9"),
+                runBatch("start hard hard\nstart user hard\n2 2"));
+    }
+
+    @Test
+    void batchModeRepeatsItsGamesForTheSameSeed() {
+        String input = String.join("\n", "start easy easy", "start easy mcts:100", "start medium easy 4 3",
+                "start easy easy 5 4", "exit");
+
+        List<String> first = runBatch(input, 11L);
+        assertEquals(4, first.size());
+        assertEquals(true, first.get(3).contains(" seed=14 "));
+        assertEquals(first, runBatch(input, 11L));
+    }
+}
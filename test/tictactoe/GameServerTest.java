@@ -0,0 +1,63 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServerTest {
+
+    @Test
+    void allowsTheBuiltInTypesWithinTheCaps() {
+        assertTrue(GameServer.isAllowed(PlayerType.parse("user")));
+        assertTrue(GameServer.isAllowed(PlayerType.parse("hard:live:t" + GameServer.MAX_SESSION_THREADS)));
+        assertTrue(GameServer.isAllowed(PlayerType.parse("mcts:" + GameServer.MAX_SESSION_PLAYOUTS)));
+        assertTrue(GameServer.isAllowed(PlayerType.parse("hard:10s")));
+
+        assertFalse(GameServer.isAllowed(PlayerType.parse("hard:live:t" + (GameServer.MAX_SESSION_THREADS + 1))));
+        assertFalse(GameServer.isAllowed(PlayerType.parse("mcts:" + (GameServer.MAX_SESSION_PLAYOUTS + 1))));
+        assertFalse(GameServer.isAllowed(PlayerType.parse("hard:11s")));
+    }
+
+    @Test
+    void answersTypesBeyondTheCapsWithAnErrorLine() throws IOException {
+        try (GameServer server = new GameServer(0)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            serving.start();
+
+            try (Socket socket = new Socket("localhost", server.getPort())) {
+                PrintStream request = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+                BufferedReader response = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+                request.println("start hard:100000s easy");
+                request.println("exit");
+                socket.shutdownOutput();
+
+                assertEquals(Game.ENTER_COMMAND + Game.BAD_PARAMETERS, response.readLine());
+                assertEquals(Game.ENTER_COMMAND, readRest(response));
+            }
+        }
+    }
+
+    private static String readRest(BufferedReader reader) throws IOException {
+        StringBuilder rest = new StringBuilder();
+        for (int c = reader.read(); c >= 0; c = reader.read()) {
+            rest.append((char) c);
+        }
+        return rest.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediumStrategyTest {
+
+    @Test
+    void recordsTheAnalysisFoundInTheMoveCache() {
+        MediumStrategy strategy = new MediumStrategy();
+        Board board = new Board();
+        board.place(0, 'X');
+        board.place(1, 'X');
+        board.place(4, 'O');
+        MoveCache.getShared().clear();
+
+        assertEquals(2, strategy.chooseMove(board, 'X', new SplittableRandom(1)));
+        assertFalse(strategy.isLastMoveCached());
+        assertEquals(2, strategy.chooseMove(board, 'X', new SplittableRandom(1)));
+        assertTrue(strategy.isLastMoveCached());
+    }
+}
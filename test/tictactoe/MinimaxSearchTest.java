@@ -0,0 +1,155 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinimaxSearchTest {
+    private static final int PARALLELISM = 4;
+
+    // every position of the 3x3 game that can arise in play and isn't over yet
+    static List<Board> reachablePositions() {
+        List<Board> positions = new ArrayList<>();
+        collect(new Board(), 'X', new boolean[19683], positions);
+        return positions;
+    }
+
+    private static void collect(Board board, char symbol, boolean[] visited, List<Board> positions) {
+        int index = indexOf(board);
+        if (visited[index] || board.isGameOver()) {
+            return;
+        }
+        visited[index] = true;
+        positions.add(board.copy());
+
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (board.isEmpty(cell)) {
+                board.place(cell, symbol);
+                collect(board, symbol == 'X' ? 'O' : 'X', visited, positions);
+                board.clear(cell);
+            }
+        }
+    }
+
+    // the position read as a base-3 number, 1 for X and 2 for O
+    static int indexOf(Board board) {
+        int index = 0;
+        for (int cell = board.getCellCount() - 1; cell >= 0; cell--) {
+            char symbol = board.getSymbol(cell);
+            index = index * 3 + (symbol == 'X' ? 1 : symbol == 'O' ? 2 : 0);
+        }
+        return index;
+    }
+
+    static char toMove(Board board) {
+        return board.countStones() % 2 == 0 ? 'X' : 'O';
+    }
+
+    // full-width minimax without pruning or caching, scored like MinimaxSearch
+    private static int plainScore(Board board, char symbol) {
+        if (board.isWin('O')) {
+            return MinimaxSearch.WIN_SCORE - board.countStones();
+        } else if (board.isWin('X')) {
+            return board.countStones() - MinimaxSearch.WIN_SCORE;
+        } else if (board.isFull()) {
+            return 0;
+        }
+
+        int best = symbol == 'O' ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (board.isEmpty(cell)) {
+                board.place(cell, symbol);
+                int score = plainScore(board, symbol == 'X' ? 'O' : 'X');
+                board.clear(cell);
+                best = symbol == 'O' ? Math.max(best, score) : Math.min(best, score);
+            }
+        }
+        return best;
+    }
+
+    // the lowest cell among the moves with the best score
+    static int plainBestMove(Board board, char symbol) {
+        int bestCell = -1;
+        int bestScore = 0;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (board.isEmpty(cell)) {
+                board.place(cell, symbol);
+                int score = plainScore(board, symbol == 'X' ? 'O' : 'X');
+                board.clear(cell);
+
+                if (bestCell < 0 || (symbol == 'O' ? score > bestScore : score < bestScore)) {
+                    bestScore = score;
+                    bestCell = cell;
+                }
+            }
+        }
+        return bestCell;
+    }
+
+    @Test
+    void reachablePositionsAreAllCounted() {
+        assertEquals(4520, reachablePositions().size());
+    }
+
+    @Test
+    void searchPicksThePlainMinimaxMoveOnEvery3x3Position() {
+        for (Board board : reachablePositions()) {
+            char symbol = toMove(board);
+
+            int cell = new MinimaxSearch(board).getBestMoveByMinimax(board, symbol, board.countEmptyCells());
+            assertEquals(plainBestMove(board, symbol), cell, () -> "position " + indexOf(board));
+        }
+    }
+
+    @Test
+    void tablebasePlaysThePlainMinimaxMoveOnEvery3x3Position() {
+        Tablebase tablebase = Tablebase.build();
+
+        for (Board board : reachablePositions()) {
+            assertEquals(plainBestMove(board, toMove(board)), tablebase.getBestMove(board), () -> "position " + indexOf(board));
+        }
+    }
+
+    @Test
+    void parallelSearchPicksTheSerialMoveOnEvery3x3Position() {
+        for (Board board : reachablePositions()) {
+            char symbol = toMove(board);
+            int depth = board.countEmptyCells();
+
+            int serial = new MinimaxSearch(board).getBestMoveByMinimax(board, symbol, depth);
+            int parallel = new MinimaxSearch(board, MinimaxSearch.getPool(PARALLELISM))
+                    .getBestMoveByMinimax(board, symbol, depth);
+            assertEquals(serial, parallel, () -> "position " + indexOf(board));
+        }
+    }
+
+    @Test
+    void parallelSearchPicksTheSerialMoveOn4x4Positions() {
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int position = 0; position < 20; position++) {
+            Board board = new Board(4, 3);
+            int stones = 2 + random.nextInt(5);
+            while (board.countStones() < stones && !board.isGameOver()) {
+                int cell = random.nextInt(board.getCellCount());
+                if (board.isEmpty(cell)) {
+                    board.place(cell, toMove(board));
+                }
+            }
+            if (board.isGameOver()) {
+                continue;
+            }
+
+            char symbol = toMove(board);
+            int depth = MinimaxSearch.getDefaultDepth(board);
+            int serial = new MinimaxSearch(board).getBestMoveByMinimax(board, symbol, depth);
+            int parallel = new MinimaxSearch(board, MinimaxSearch.getPool(PARALLELISM))
+                    .getBestMoveByMinimax(board, symbol, depth);
+            assertEquals(serial, parallel, "position " + position);
+        }
+    }
+}
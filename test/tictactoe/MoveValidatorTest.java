@@ -0,0 +1,59 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoveValidatorTest {
+
+    @Test
+    void readsRowAndColumnFromOne() {
+        Board board = new Board();
+
+        assertEquals(0, MoveValidator.parse("1 1", board));
+        assertEquals(5, MoveValidator.parse("2 3", board));
+        assertEquals(8, MoveValidator.parse("  3\t 3 ", board));
+        assertEquals(4, MoveValidator.parse("+2 2", board));
+    }
+
+    @Test
+    void answersErrorCodesInTheOrderTheyAreChecked() {
+        Board board = new Board();
+
+        assertEquals(MoveValidator.ERROR_NOT_A_NUMBER, MoveValidator.parse("a b", board));
+        assertEquals(MoveValidator.ERROR_NOT_A_NUMBER, MoveValidator.parse("1 -", board));
+        assertEquals(MoveValidator.ERROR_COORDINATES_NUMBER, MoveValidator.parse("1", board));
+        assertEquals(MoveValidator.ERROR_COORDINATES_NUMBER, MoveValidator.parse("", board));
+        assertEquals(MoveValidator.ERROR_COORDINATES_NUMBER, MoveValidator.parse("1 2 3", board));
+        assertEquals(MoveValidator.ERROR_COORDINATES_NUMBER, MoveValidator.parse("a", board));
+        assertEquals(MoveValidator.ERROR_OUT_OF_RANGE, MoveValidator.parse("5 5", board));
+        assertEquals(MoveValidator.ERROR_OUT_OF_RANGE, MoveValidator.parse("0 1", board));
+        assertEquals(MoveValidator.ERROR_OUT_OF_RANGE, MoveValidator.parse("-1 1", board));
+
+        board.place(0, 'X');
+        assertEquals(MoveValidator.ERROR_CELL_IS_OCCUPIED, MoveValidator.parse("1 1", board));
+    }
+
+    @Test
+    void numbersTooBigForAnIntAreOutOfRange() {
+        Board board = new Board(15, 5);
+
+        assertEquals(MoveValidator.ERROR_OUT_OF_RANGE, MoveValidator.parse("99999999999999999999 1", board));
+        assertEquals(MoveValidator.ERROR_OUT_OF_RANGE, MoveValidator.parse("1 2147483648", board));
+        assertEquals(MoveValidator.ERROR_OUT_OF_RANGE, MoveValidator.parse("-99999999999999999999 1", board));
+        assertEquals(board.toCell(14, 14), MoveValidator.parse("15 15", board));
+    }
+
+    @Test
+    void messagesMatchTheCodes() {
+        Board board = new Board(5, 4);
+
+        assertEquals(MoveValidator.NOT_A_NUMBER, MoveValidator.getMessage(MoveValidator.ERROR_NOT_A_NUMBER, board));
+        assertEquals(MoveValidator.INVALID_COORDINATES_NUMBER,
+                MoveValidator.getMessage(MoveValidator.ERROR_COORDINATES_NUMBER, board));
+        assertEquals("Coordinates should be from 1 to 5!", MoveValidator.getMessage(MoveValidator.ERROR_OUT_OF_RANGE, board));
+        assertEquals(MoveValidator.CELL_IS_OCCUPIED, MoveValidator.getMessage(MoveValidator.ERROR_CELL_IS_OCCUPIED, board));
+        assertThrows(IllegalArgumentException.class, () -> MoveValidator.getMessage(0, board));
+    }
+}
@@ -0,0 +1,43 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlayerTypeTest {
+
+    @Test
+    void readsTimeBudgetsInMillisAndSeconds() {
+        assertEquals(50, PlayerType.parse("hard:50ms").getTimeBudgetMillis());
+        assertEquals(2000, PlayerType.parse("hard:2s").getTimeBudgetMillis());
+        assertEquals(PlayerType.MAX_TIME_BUDGET_MILLIS, PlayerType.parse("mcts:86400s").getTimeBudgetMillis());
+    }
+
+    @Test
+    void rejectsTimeBudgetsThatWouldOverflow() {
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:9300000000000000s"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:86401s"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:9223372036854775807ms"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:99999999999999999999s"));
+    }
+
+    @Test
+    void threadCountsAreBounded() {
+        assertEquals(8, PlayerType.parse("hard:t8").getThreads());
+        assertEquals(PlayerType.MAX_THREADS, PlayerType.parse("mcts:t" + PlayerType.MAX_THREADS).getThreads());
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:t" + (PlayerType.MAX_THREADS + 1)));
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:live:t4294967297"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerType.parse("hard:t0"));
+    }
+
+    @Test
+    void poolsNeverOutnumberTheCores() {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        assertEquals(cores, MinimaxSearch.getPool(PlayerType.MAX_THREADS).getParallelism());
+        assertEquals(Math.min(2, cores), MinimaxSearch.getPool(2).getParallelism());
+        assertSame(MinimaxSearch.getPool(cores), MinimaxSearch.getPool(cores + 1));
+    }
+}
@@ -0,0 +1,65 @@
+package tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetrogradeTableTest {
+
+    @Test
+    void subsetRanksAreDenseAndUnrankBack() {
+        int cells = 9;
+
+        for (int elements = 0; elements <= cells; elements++) {
+            boolean[] ranked = new boolean[(int) binomial(cells, elements)];
+
+            for (long set = 0; set < 1 << cells; set++) {
+                if (Long.bitCount(set) != elements) {
+                    continue;
+                }
+                long rank = RetrogradeTable.rankSubset(set);
+
+                // the sets of k cells take exactly the ranks 0 .. C(9, k) - 1
+                assertTrue(rank >= 0 && rank < ranked.length, "rank " + rank + " of set " + set);
+                assertFalse(ranked[(int) rank], "rank " + rank + " taken twice");
+                ranked[(int) rank] = true;
+                assertEquals(set, RetrogradeTable.unrankSubset(rank, elements), "set " + set);
+            }
+        }
+    }
+
+    @Test
+    void compressExpandsBack() {
+        long within = 0b1011_0110_1001L;
+        for (long set = 0; set < 1 << 12; set++) {
+            long inside = set & within;
+            long compressed = RetrogradeTable.compress(inside, within);
+
+            assertEquals(inside, RetrogradeTable.expand(compressed, within));
+            assertEquals(Long.bitCount(inside), Long.bitCount(compressed));
+        }
+    }
+
+    @Test
+    void solved3x3TablePlaysLikeTheTablebase() {
+        RetrogradeTable table = RetrogradeTable.solve(3, 3, 2);
+        Tablebase tablebase = Tablebase.build();
+
+        assertEquals(0, table.getResult(new Board()));
+        assertEquals(9, table.getDistance(new Board()));
+        for (Board board : MinimaxSearchTest.reachablePositions()) {
+            assertEquals(tablebase.getBestMove(board), table.getBestMove(board),
+                    () -> "position " + MinimaxSearchTest.indexOf(board));
+        }
+    }
+
+    private static long binomial(int n, int k) {
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}